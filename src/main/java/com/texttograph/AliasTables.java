@@ -0,0 +1,199 @@
+package com.texttograph;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 按边权（二元组计数）抽取出边的别名表（Vose方法），每次抽样O(1)。可选温度T：边权变为 w^(1/T)，
+// T < 1 时分布更集中，T > 1 时更平坦；为避免溢出，按每个节点的最大边权归一化后再取幂。
+// 表在节点第一次被抽样时构建并缓存，所有缓存的条目总数不超过上限。构造时按出度从大到小
+// 为别名表预留上限，出度最大的节点总能得到O(1)的表；出度很小的节点直接按累计权重扫描。
+// 其余节点用剩余的上限缓存本节点的累计权重，每次抽样二分查找O(log 出度)，上限用完后扫描
+final class AliasTables {
+    static final long DEFAULT_MAX_ENTRIES = 1 << 21;   // 每个条目一个double和一个int，约24MB
+    private static final int SCAN_DEGREE = 8;
+
+    // alias为null时是累计权重表：probability[i]为从第一条出边到第i条的权重和
+    private static final class Table {
+        final double[] probability;
+        final int[] alias;
+
+        Table(double[] probability, int[] alias) {
+            this.probability = probability;
+            this.alias = alias;
+        }
+    }
+
+    private final GraphSnapshot graph;
+    private final AtomicReferenceArray<Table> tables;
+    private final double[] edgeWeights;   // 温度为1时为null，直接使用graph.weights
+    private final int minTableDegree;     // 出度不低于该值的节点建别名表，它们的条目总数不超过上限
+    private final long prefixBudget;      // 别名表预留之后剩下的条目数，给累计权重表使用
+    private final AtomicLong tableEntries = new AtomicLong();
+    private final AtomicLong prefixEntries = new AtomicLong();
+
+    AliasTables(GraphSnapshot graph, long maxEntries) {
+        this(graph, maxEntries, 1);
+    }
+
+    AliasTables(GraphSnapshot graph, long maxEntries, double temperature) {
+        if (!(temperature > 0)) throw new IllegalArgumentException("温度必须为正: " + temperature);
+        this.graph = graph;
+        this.tables = new AtomicReferenceArray<>(graph.size());
+
+        // 按出度分桶，从最大的出度往下累加，直到放不下整个桶
+        int maxDegree = 0;
+        for (int v = 0; v < graph.size(); v++) {
+            maxDegree = Math.max(maxDegree, graph.outDegree(v));
+        }
+        long[] bucket = new long[maxDegree + 1];
+        for (int v = 0; v < graph.size(); v++) {
+            int degree = graph.outDegree(v);
+            if (degree > SCAN_DEGREE) bucket[degree] += degree;
+        }
+        int threshold = SCAN_DEGREE + 1;
+        long reserved = 0;
+        for (int degree = maxDegree; degree > SCAN_DEGREE; degree--) {
+            if (reserved + bucket[degree] > maxEntries) {
+                threshold = degree + 1;
+                break;
+            }
+            reserved += bucket[degree];
+        }
+        this.minTableDegree = threshold;
+        this.prefixBudget = maxEntries - reserved;
+
+        if (temperature == 1) {
+            this.edgeWeights = null;
+            return;
+        }
+        this.edgeWeights = new double[graph.edgeCount()];
+        for (int v = 0; v < graph.size(); v++) {
+            double maxWeight = 0;
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                maxWeight = Math.max(maxWeight, graph.weights[e]);
+            }
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                edgeWeights[e] = Math.pow(graph.weights[e] / maxWeight, 1 / temperature);
+            }
+        }
+    }
+
+    private double weight(int e) {
+        return edgeWeights == null ? graph.weights[e] : edgeWeights[e];
+    }
+
+    // 已缓存的条目数
+    long cachedEntries() {
+        return tableEntries.get() + prefixEntries.get();
+    }
+
+    // 按权重抽取v的一条出边，返回边的下标；v必须有出边
+    int sample(int v, SplittableRandom random) {
+        int from = graph.offsets[v];
+        int degree = graph.offsets[v + 1] - from;
+        if (degree == 1) return from;
+        if (degree <= SCAN_DEGREE) return scan(from, degree, random);
+
+        Table table = tables.get(v);
+        if (table == null) {
+            table = degree >= minTableDegree ? build(v, from, degree) : buildPrefix(v, from, degree);
+            if (table == null) return scan(from, degree, random);
+        }
+        if (table.alias == null) return from + search(table.probability, random);
+        int i = random.nextInt(degree);
+        return random.nextDouble() < table.probability[i] ? from + i : from + table.alias[i];
+    }
+
+    private int scan(int from, int degree, SplittableRandom random) {
+        double total = 0;
+        for (int e = from; e < from + degree; e++) {
+            total += weight(e);
+        }
+        double target = random.nextDouble() * total;
+        for (int e = from; e < from + degree - 1; e++) {
+            target -= weight(e);
+            if (target < 0) return e;
+        }
+        return from + degree - 1;
+    }
+
+    // 在累计权重上二分查找第一个大于目标值的位置
+    private static int search(double[] sums, SplittableRandom random) {
+        int low = 0;
+        int high = sums.length - 1;
+        double target = random.nextDouble() * sums[high];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sums[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // 从剩余上限中预留后构建累计权重表，上限用完时返回null；并发构建时落选者归还预留
+    private Table buildPrefix(int v, int from, int degree) {
+        if (prefixEntries.addAndGet(degree) > prefixBudget) {
+            prefixEntries.addAndGet(-degree);
+            return null;
+        }
+        double[] sums = new double[degree];
+        double total = 0;
+        for (int i = 0; i < degree; i++) {
+            total += weight(from + i);
+            sums[i] = total;
+        }
+        Table table = new Table(sums, null);
+        if (!tables.compareAndSet(v, null, table)) {
+            prefixEntries.addAndGet(-degree);
+            return tables.get(v);
+        }
+        return table;
+    }
+
+    // 构造时已为这些节点预留了条目；并发构建同一节点时只保留一张表
+    private Table build(int v, int from, int degree) {
+        double total = 0;
+        for (int e = from; e < from + degree; e++) {
+            total += weight(e);
+        }
+        double[] probability = new double[degree];
+        int[] alias = new int[degree];
+        int[] small = new int[degree];
+        int[] large = new int[degree];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < degree; i++) {
+            probability[i] = weight(from + i) * degree / total;
+            if (probability[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            alias[less] = more;
+            probability[more] -= 1 - probability[less];
+            if (probability[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // 剩余的列由于舍入误差偏离1，按1处理
+        while (largeSize > 0) probability[large[--largeSize]] = 1;
+        while (smallSize > 0) probability[small[--smallSize]] = 1;
+
+        Table table = new Table(probability, alias);
+        if (!tables.compareAndSet(v, null, table)) {
+            return tables.get(v);
+        }
+        tableEntries.addAndGet(degree);
+        return table;
+    }
+}
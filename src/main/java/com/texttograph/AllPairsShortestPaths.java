@@ -0,0 +1,182 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+// 全源最短路径预计算：在所有核心上并行地从每个顶点运行一次Dijkstra，
+// 每个起点保存一行前驱和距离，之后任意两点的查询只需沿前驱回溯，代价与路径长度成正比。
+// 距离在总权重不超过65534时按char（2字节）存储，否则按int存储；
+// 数据量超过堆内上限时写入临时文件并内存映射
+public class AllPairsShortestPaths {
+    private static final char CHAR_UNREACHABLE = Character.MAX_VALUE;
+
+    // 进度回调，可能在工作线程中被调用
+    public interface ProgressListener {
+        void onProgress(int completedSources, int totalSources);
+    }
+
+    private final GraphSnapshot graph;
+    private final ByteBuffer[] segments;   // 每段包含rowsPerSegment行
+    private final int rowsPerSegment;
+    private final int rowBytes;
+    private final boolean compactDistances;
+    private final boolean spilled;
+
+    private AllPairsShortestPaths(GraphSnapshot graph, ByteBuffer[] segments, int rowsPerSegment,
+                                  int rowBytes, boolean compactDistances, boolean spilled) {
+        this.graph = graph;
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+        this.rowBytes = rowBytes;
+        this.compactDistances = compactDistances;
+        this.spilled = spilled;
+    }
+
+    // 在后台线程中预计算；取消返回的Future会让计算在下一个起点处停止。
+    // spillDirectory为null时溢出文件放在系统临时目录
+    public static CompletableFuture<AllPairsShortestPaths> computeAsync(
+            GraphSnapshot graph, Path spillDirectory, ProgressListener listener) {
+        CompletableFuture<AllPairsShortestPaths> result = new CompletableFuture<>();
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                result.complete(compute(graph, spillDirectory, listener, result::isCancelled,
+                        Runtime.getRuntime().maxMemory() / 4));
+            } catch (CancellationException e) {
+                result.cancel(false);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    static AllPairsShortestPaths compute(GraphSnapshot graph, Path spillDirectory, ProgressListener listener,
+                                         BooleanSupplier cancelled, long heapLimit) throws IOException {
+        final int n = graph.size();
+        long totalWeight = 0;
+        for (int weight : graph.weights) {
+            totalWeight += weight;
+        }
+        boolean compact = totalWeight < CHAR_UNREACHABLE;
+        // 每行：n个前驱(int) + n个距离(char或int)
+        long rowSize = (long) n * (4 + (compact ? 2 : 4));
+        if (rowSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("词汇量过大，无法按行存储: " + n);
+        }
+        int rowBytes = (int) Math.max(1, rowSize);
+        int rowsPerSegment = Math.max(1, Integer.MAX_VALUE / rowBytes);
+        int segmentCount = Math.max(1, (n + rowsPerSegment - 1) / rowsPerSegment);
+        boolean spill = rowSize * n > heapLimit;
+
+        ByteBuffer[] segments = new ByteBuffer[segmentCount];
+        if (spill) {
+            Path file = spillDirectory == null
+                    ? Files.createTempFile("apsp", ".bin")
+                    : Files.createTempFile(spillDirectory, "apsp", ".bin");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (int i = 0; i < segmentCount; i++) {
+                    int rows = Math.min(rowsPerSegment, n - i * rowsPerSegment);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                            (long) i * rowsPerSegment * rowBytes, (long) rows * rowBytes);
+                }
+            } finally {
+                // 映射建立后文件即可删除；不支持时退出时再删
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+            }
+        } else {
+            for (int i = 0; i < segmentCount; i++) {
+                int rows = Math.min(rowsPerSegment, n - i * rowsPerSegment);
+                segments[i] = ByteBuffer.allocate(Math.max(0, rows) * rowBytes);
+            }
+        }
+
+        AllPairsShortestPaths result = new AllPairsShortestPaths(
+                graph, segments, rowsPerSegment, rowBytes, compact, spill);
+        AtomicInteger completed = new AtomicInteger();
+        int reportEvery = Math.max(1, n / 1000);
+        IntStream.range(0, n).parallel().forEach(source -> {
+            if (cancelled.getAsBoolean()) throw new CancellationException();
+            result.writeRow(source, ShortestPathTree.dijkstra(graph, source));
+            int done = completed.incrementAndGet();
+            if (listener != null && (done % reportEvery == 0 || done == n)) {
+                listener.onProgress(done, n);
+            }
+        });
+        return result;
+    }
+
+    private void writeRow(int source, ShortestPathTree tree) {
+        ByteBuffer segment = segments[source / rowsPerSegment];
+        int base = (source % rowsPerSegment) * rowBytes;
+        int n = graph.size();
+        int distBase = base + n * 4;
+        for (int t = 0; t < n; t++) {
+            segment.putInt(base + t * 4, tree.parent[t]);
+            if (compactDistances) {
+                int d = tree.dist[t];
+                segment.putChar(distBase + t * 2, d == GraphSnapshot.UNREACHABLE ? CHAR_UNREACHABLE : (char) d);
+            } else {
+                segment.putInt(distBase + t * 4, tree.dist[t]);
+            }
+        }
+    }
+
+    public GraphSnapshot graph() {
+        return graph;
+    }
+
+    // 两点间最短距离，不可达时返回GraphSnapshot.UNREACHABLE
+    public int distance(int source, int target) {
+        ByteBuffer segment = segments[source / rowsPerSegment];
+        int distBase = (source % rowsPerSegment) * rowBytes + graph.size() * 4;
+        if (compactDistances) {
+            char d = segment.getChar(distBase + target * 2);
+            return d == CHAR_UNREACHABLE ? GraphSnapshot.UNREACHABLE : d;
+        }
+        return segment.getInt(distBase + target * 4);
+    }
+
+    // 沿前驱回溯重构路径，代价与路径长度成正比；不可达时返回空列表
+    public List<Node> path(int source, int target) {
+        if (distance(source, target) == GraphSnapshot.UNREACHABLE) return Collections.emptyList();
+        ByteBuffer segment = segments[source / rowsPerSegment];
+        int base = (source % rowsPerSegment) * rowBytes;
+        LinkedList<Node> path = new LinkedList<>();
+        for (int v = target; v >= 0; v = segment.getInt(base + v * 4)) {
+            path.addFirst(graph.node(v));
+        }
+        return path;
+    }
+
+    // 存储占用的字节数
+    public long sizeInBytes() {
+        long total = 0;
+        for (ByteBuffer segment : segments) {
+            total += segment.capacity();
+        }
+        return total;
+    }
+
+    public boolean isSpilled() {
+        return spilled;
+    }
+}
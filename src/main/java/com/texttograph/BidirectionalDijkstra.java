@@ -0,0 +1,87 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+// 点对点双向Dijkstra：从起点沿出边、从终点沿入边（反向CSR）同时搜索，
+// 每次扩展堆较小的一侧；当两侧堆顶距离之和不小于已知最短路径长度时即可证明最优并停止
+public class BidirectionalDijkstra {
+
+    public static SearchResult search(GraphSnapshot graph, int source, int target) {
+        if (source == target) {
+            return new SearchResult(0, Collections.singletonList(graph.node(source)), 0);
+        }
+        int n = graph.size();
+        int[] distForward = new int[n];
+        int[] distBackward = new int[n];
+        int[] parentForward = new int[n];    // 正向搜索中的前驱
+        int[] parentBackward = new int[n];   // 反向搜索中的后继（朝终点方向）
+        Arrays.fill(distForward, GraphSnapshot.UNREACHABLE);
+        Arrays.fill(distBackward, GraphSnapshot.UNREACHABLE);
+        Arrays.fill(parentForward, -1);
+        Arrays.fill(parentBackward, -1);
+        distForward[source] = 0;
+        distBackward[target] = 0;
+
+        IndexedMinHeap forward = new IndexedMinHeap(n);
+        IndexedMinHeap backward = new IndexedMinHeap(n);
+        forward.insertOrDecrease(source, 0);
+        backward.insertOrDecrease(target, 0);
+
+        long best = Long.MAX_VALUE;   // 目前找到的最短路径长度
+        int meet = -1;                // 该路径上两侧搜索相遇的顶点
+        int settled = 0;
+        while (!forward.isEmpty() && !backward.isEmpty()
+                && (long) forward.peekKey() + backward.peekKey() < best) {
+            settled++;
+            if (forward.size() <= backward.size()) {
+                int u = forward.poll();
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    int v = graph.targets[e];
+                    int newDist = distForward[u] + graph.weights[e];
+                    if (newDist < distForward[v]) {
+                        distForward[v] = newDist;
+                        parentForward[v] = u;
+                        forward.insertOrDecrease(v, newDist);
+                        if (distBackward[v] != GraphSnapshot.UNREACHABLE && (long) newDist + distBackward[v] < best) {
+                            best = (long) newDist + distBackward[v];
+                            meet = v;
+                        }
+                    }
+                }
+            } else {
+                int u = backward.poll();
+                for (int e = graph.inOffsets[u]; e < graph.inOffsets[u + 1]; e++) {
+                    int v = graph.inSources[e];
+                    int newDist = distBackward[u] + graph.inWeights[e];
+                    if (newDist < distBackward[v]) {
+                        distBackward[v] = newDist;
+                        parentBackward[v] = u;
+                        backward.insertOrDecrease(v, newDist);
+                        if (distForward[v] != GraphSnapshot.UNREACHABLE && (long) newDist + distForward[v] < best) {
+                            best = (long) newDist + distForward[v];
+                            meet = v;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (meet < 0) {
+            return new SearchResult(GraphSnapshot.UNREACHABLE, Collections.<Node>emptyList(), settled);
+        }
+        // 起点 -> 相遇点沿正向前驱回溯，相遇点 -> 终点沿反向后继前进
+        LinkedList<Node> path = new LinkedList<>();
+        for (int v = meet; v >= 0; v = parentForward[v]) {
+            path.addFirst(graph.node(v));
+        }
+        for (int v = parentBackward[meet]; v >= 0; v = parentBackward[v]) {
+            path.addLast(graph.node(v));
+        }
+        return new SearchResult((int) best, path, settled);
+    }
+}
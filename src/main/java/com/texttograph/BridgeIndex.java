@@ -0,0 +1,141 @@
+package com.texttograph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// 桥接词索引：word1 -> bridge -> word2 的bridge是word1出邻居与word2入邻居的交集。
+// 每个顶点的出邻居和入邻居各存一份升序数组，查询时做有序求交：两边长度相近时线性归并，
+// 相差悬殊时在长的一边倍增+二分查找，代价约为 短边长度 * log(长边长度)，与高频词的度数基本无关。
+// 两边都很长（两个高频词）的组合在第一次查询后记入有上限的缓存。
+// 结果按word1的出边顺序排列，与逐个检查出邻居的结果相同
+final class BridgeIndex {
+    static final int DEFAULT_HEAVY_DEGREE = 64;
+    private static final int MEMO_CAPACITY = 1 << 16;   // 缓存的组合数上限
+    private static final int[] NONE = new int[0];
+
+    private final GraphSnapshot graph;
+    private final int heavyDegree;
+    // 与graph.offsets对齐：按目标ID升序的出邻居，以及该出边在原出边顺序中的位置
+    private final int[] sortedTargets;
+    private final int[] edgeOrder;
+    // 与graph.inOffsets对齐：按ID升序的入邻居
+    private final int[] sortedSources;
+    private final Map<Long, int[]> memo = new ConcurrentHashMap<>();
+
+    BridgeIndex(GraphSnapshot graph) {
+        this(graph, DEFAULT_HEAVY_DEGREE);
+    }
+
+    BridgeIndex(GraphSnapshot graph, int heavyDegree) {
+        this.graph = graph;
+        this.heavyDegree = heavyDegree;
+        int m = graph.edgeCount();
+        this.sortedTargets = new int[m];
+        this.edgeOrder = new int[m];
+        this.sortedSources = Arrays.copyOf(graph.inSources, m);
+        IntStream.range(0, graph.size()).parallel().forEach(v -> {
+            int from = graph.offsets[v];
+            int to = graph.offsets[v + 1];
+            // 目标和原位置打包成long一起排序
+            long[] packed = new long[to - from];
+            for (int e = from; e < to; e++) {
+                packed[e - from] = ((long) graph.targets[e] << 32) | (e - from);
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < packed.length; i++) {
+                sortedTargets[from + i] = (int) (packed[i] >>> 32);
+                edgeOrder[from + i] = (int) packed[i];
+            }
+            Arrays.sort(sortedSources, graph.inOffsets[v], graph.inOffsets[v + 1]);
+        });
+    }
+
+    // 桥接词的ID，按word1的出边顺序排列
+    int[] bridges(int word1, int word2) {
+        int outDegree = graph.outDegree(word1);
+        int inDegree = graph.inDegree(word2);
+        if (outDegree == 0 || inDegree == 0) return NONE;
+        if (outDegree < heavyDegree || inDegree < heavyDegree) return intersect(word1, word2);
+
+        Long key = ((long) word1 << 32) | word2;
+        int[] cached = memo.get(key);
+        if (cached != null) return cached;
+        int[] result = intersect(word1, word2);
+        if (memo.size() < MEMO_CAPACITY) memo.put(key, result);
+        return result;
+    }
+
+    // 批量查询第i对 (first[i], second[i])，各对并行计算
+    int[][] bridges(int[] first, int[] second) {
+        int[][] result = new int[first.length][];
+        IntStream.range(0, first.length).parallel().forEach(i -> result[i] = bridges(first[i], second[i]));
+        return result;
+    }
+
+    private int[] intersect(int word1, int word2) {
+        int aFrom = graph.offsets[word1];
+        int aTo = graph.offsets[word1 + 1];
+        int bFrom = graph.inOffsets[word2];
+        int bTo = graph.inOffsets[word2 + 1];
+        // 记录交集在word1出边中的原位置，最后按原位置排序
+        int[] positions = new int[Math.min(aTo - aFrom, bTo - bFrom)];
+        int count = 0;
+        int aLength = aTo - aFrom;
+        int bLength = bTo - bFrom;
+        if (aLength * 8L < bLength) {
+            for (int i = aFrom, j = bFrom; i < aTo && j < bTo; i++) {
+                j = gallop(sortedSources, j, bTo, sortedTargets[i]);
+                if (j < bTo && sortedSources[j] == sortedTargets[i]) positions[count++] = edgeOrder[i];
+            }
+        } else if (bLength * 8L < aLength) {
+            for (int j = bFrom, i = aFrom; j < bTo && i < aTo; j++) {
+                i = gallop(sortedTargets, i, aTo, sortedSources[j]);
+                if (i < aTo && sortedTargets[i] == sortedSources[j]) positions[count++] = edgeOrder[i];
+            }
+        } else {
+            int i = aFrom;
+            int j = bFrom;
+            while (i < aTo && j < bTo) {
+                if (sortedTargets[i] < sortedSources[j]) {
+                    i++;
+                } else if (sortedTargets[i] > sortedSources[j]) {
+                    j++;
+                } else {
+                    positions[count++] = edgeOrder[i++];
+                    j++;
+                }
+            }
+        }
+        if (count == 0) return NONE;
+        Arrays.sort(positions, 0, count);
+        int[] result = new int[count];
+        for (int k = 0; k < count; k++) {
+            result[k] = graph.targets[aFrom + positions[k]];
+        }
+        return result;
+    }
+
+    // 在有序区间 [from, to) 中找第一个不小于key的位置：先倍增步长越过key，再在最后一步内二分
+    private static int gallop(int[] values, int from, int to, int key) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < to && values[high] < key) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,202 @@
+package com.texttograph;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// 流式桥接词改写：从Reader读入文档，在每对相邻单词之间（若存在桥接词）随机插入一个桥接词，写到Writer。
+// 分词规则与TextProcessor相同（连续字母为单词，其余字符为分隔符），原文的单词、大小写、标点和空白
+// 原样保留，桥接词插在后一个单词之前。文本在单词边界处切块，各块在fork-join池上并行改写，
+// 按块顺序写出；每块的SplittableRandom在提交前按顺序从根种子分裂，输出与线程数无关
+public class BridgeTextRewriter {
+    private static final int CHUNK_CHARS = 1 << 16;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+    private final GraphSnapshot graph;
+    private final BridgeIndex index;
+    private final long seed;
+
+    public BridgeTextRewriter(GraphSnapshot graph, long seed) {
+        this.graph = graph;
+        this.index = graph.bridgeIndex();
+        this.seed = seed;
+    }
+
+    public long rewrite(Reader reader, Writer writer) throws IOException {
+        return rewrite(reader, writer, ForkJoinPool.commonPool(), new SplittableRandom(seed));
+    }
+
+    // 改写一组文档，每个文档写到outputDirectory下的同名文件，编码与TextProcessor读取文件时一致；
+    // 返回插入的桥接词总数。输出会覆盖原文或文档重名时，在写任何文件之前抛出异常
+    public long rewriteFiles(List<Path> documents, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        List<Path> targets = new ArrayList<>(documents.size());
+        Set<Path> names = new HashSet<>();
+        for (Path document : documents) {
+            Path target = outputDirectory.resolve(document.getFileName().toString());
+            if (!names.add(target.getFileName())) {
+                throw new IllegalArgumentException("文档重名，输出会互相覆盖: " + document);
+            }
+            if (Files.exists(target) && Files.isSameFile(document, target)) {
+                throw new IllegalArgumentException("输出会覆盖原文档: " + document);
+            }
+            targets.add(target);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        long inserted = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            Path document = documents.get(i);
+            Path target = targets.get(i);
+            try (Reader reader = new InputStreamReader(Files.newInputStream(document), Charset.defaultCharset());
+                 Writer writer = new OutputStreamWriter(Files.newOutputStream(target), Charset.defaultCharset())) {
+                inserted += rewrite(reader, writer, ForkJoinPool.commonPool(), root.split());
+            }
+        }
+        return inserted;
+    }
+
+    // 返回插入的桥接词个数；reader和writer由调用方关闭
+    long rewrite(Reader reader, Writer writer, ForkJoinPool pool, SplittableRandom root) throws IOException {
+        int window = Math.max(1, pool.getParallelism() * CHUNKS_IN_FLIGHT_PER_THREAD);
+        ChunkReader chunks = new ChunkReader(reader);
+        long inserted = 0;
+        String previousWord = null;   // 上一块的最后一个单词
+        boolean more = true;
+        while (more) {
+            List<Chunk> batch = new ArrayList<>(window);
+            while (batch.size() < window) {
+                char[] text = chunks.next();
+                if (text == null) {
+                    more = false;
+                    break;
+                }
+                batch.add(new Chunk(text, previousWord, root.split()));
+                String last = lastWord(text);
+                if (last != null) previousWord = last;
+            }
+            if (batch.isEmpty()) break;
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(batch);
+                    return null;
+                }
+            });
+            for (Chunk chunk : batch) {
+                StringBuilder out = chunk.join();
+                writer.append(out);
+                inserted += chunk.inserted;
+            }
+        }
+        writer.flush();
+        return inserted;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static String lastWord(char[] text) {
+        int end = text.length;
+        while (end > 0 && !isLetter(text[end - 1])) end--;
+        if (end == 0) return null;
+        int start = end;
+        while (start > 0 && isLetter(text[start - 1])) start--;
+        return new String(text, start, end - start);
+    }
+
+    // 按单词边界切块：每块以非字母字符结尾（最后一块除外），单词不会被切开
+    private static final class ChunkReader {
+        private final Reader reader;
+        private char[] buffer = new char[CHUNK_CHARS];
+        private int length;
+        private boolean eof;
+
+        ChunkReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        char[] next() throws IOException {
+            while (true) {
+                while (!eof && length < buffer.length) {
+                    int n = reader.read(buffer, length, buffer.length - length);
+                    if (n < 0) {
+                        eof = true;
+                    } else {
+                        length += n;
+                    }
+                }
+                if (length == 0) return null;
+                int cut = length;
+                if (!eof) {
+                    while (cut > 0 && isLetter(buffer[cut - 1])) cut--;
+                    if (cut == 0) {
+                        // 整块都是字母：扩大缓冲区继续读
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                        continue;
+                    }
+                }
+                char[] chunk = Arrays.copyOf(buffer, cut);
+                System.arraycopy(buffer, cut, buffer, 0, length - cut);
+                length -= cut;
+                return chunk;
+            }
+        }
+    }
+
+    private final class Chunk extends RecursiveTask<StringBuilder> {
+        private final char[] text;
+        private final String previousWord;
+        private final SplittableRandom random;
+        int inserted;
+
+        Chunk(char[] text, String previousWord, SplittableRandom random) {
+            this.text = text;
+            this.previousWord = previousWord;
+            this.random = random;
+        }
+
+        @Override
+        protected StringBuilder compute() {
+            StringBuilder out = new StringBuilder(text.length + text.length / 4);
+            int previous = previousWord == null ? -1 : graph.id(previousWord.toLowerCase());
+            int copied = 0;
+            int i = 0;
+            while (i < text.length) {
+                if (!isLetter(text[i])) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                while (i < text.length && isLetter(text[i])) i++;
+                int current = graph.id(new String(text, start, i - start).toLowerCase());
+                if (previous >= 0 && current >= 0) {
+                    int[] bridges = index.bridges(previous, current);
+                    if (bridges.length > 0) {
+                        out.append(text, copied, start - copied);
+                        out.append(graph.word(bridges[random.nextInt(bridges.length)])).append(' ');
+                        copied = start;
+                        inserted++;
+                    }
+                }
+                previous = current;
+            }
+            out.append(text, copied, text.length - copied);
+            return out;
+        }
+    }
+}
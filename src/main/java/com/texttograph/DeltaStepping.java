@@ -0,0 +1,203 @@
+package com.texttograph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+// 利用边权为小正整数（二元组计数）的单源最短路径：
+// Dial桶队列（单线程）与delta-stepping（多线程）。前驱都按Dijkstra的出堆顺序 (dist, id)
+// 选取：Dial在松弛时直接比较，delta-stepping在距离确定后并行地统一确定，保证结果与顺序引擎完全一致
+final class DeltaStepping {
+    // 前沿小于该值时在当前线程内松弛，避免任务拆分的开销
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private DeltaStepping() {
+    }
+
+    // Dial算法：距离即桶号，权重不超过maxWeight，只需maxWeight+1个循环桶
+    static ShortestPathTree dial(GraphSnapshot graph, int source) {
+        int n = graph.size();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, GraphSnapshot.UNREACHABLE);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        int maxWeight = 1;
+        for (int weight : graph.weights) {
+            maxWeight = Math.max(maxWeight, weight);
+        }
+        IntList[] buckets = new IntList[maxWeight + 1];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new IntList();
+        buckets[0].add(source);
+        int pending = 1;
+        for (int d = 0; pending > 0; d++) {
+            IntList bucket = buckets[d % buckets.length];
+            // 权重至少为1，松弛不会再向当前桶加入顶点
+            for (int i = 0; i < bucket.size; i++) {
+                int u = bucket.values[i];
+                if (dist[u] != d) continue;   // 已被更短的距离取代
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    int v = graph.targets[e];
+                    int newDist = d + graph.weights[e];
+                    if (newDist < dist[v]) {
+                        dist[v] = newDist;
+                        parent[v] = u;
+                        buckets[newDist % buckets.length].add(v);
+                        pending++;
+                    } else if (newDist == dist[v] && v != source && d == dist[parent[v]] && u < parent[v]) {
+                        // 桶按距离递增处理，等长路径上 (dist, id) 更小的前驱优先，与Dijkstra一致
+                        parent[v] = u;
+                    }
+                }
+            }
+            pending -= bucket.size;
+            bucket.size = 0;
+        }
+        return new ShortestPathTree(graph, source, dist, parent);
+    }
+
+    // 默认的桶宽：平均边权向上取整，使大部分边成为轻边
+    static int defaultDelta(GraphSnapshot graph) {
+        long total = 0;
+        for (int weight : graph.weights) {
+            total += weight;
+        }
+        return graph.edgeCount() == 0 ? 1 : (int) Math.max(1, (total + graph.edgeCount() - 1) / graph.edgeCount());
+    }
+
+    // delta-stepping：按 dist / delta 分桶，同一桶内反复并行松弛轻边（w <= delta）直到桶为空，
+    // 再一次性松弛该桶所有已确定顶点的重边。距离用CAS取最小值更新
+    static ShortestPathTree deltaStepping(GraphSnapshot graph, int source, int delta) {
+        int n = graph.size();
+        AtomicIntegerArray dist = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) dist.set(v, GraphSnapshot.UNREACHABLE);
+        dist.set(source, 0);
+
+        List<IntList> buckets = new ArrayList<>();
+        bucket(buckets, 0).add(source);
+        int[] frontierStamp = new int[n];   // 本轮前沿去重，值为轮次编号
+        int round = 0;
+        for (int b = 0; b < buckets.size(); b++) {
+            IntList settled = new IntList();
+            while (buckets.get(b).size > 0) {
+                IntList candidates = buckets.get(b);
+                buckets.set(b, new IntList());
+                round++;
+                IntList frontier = new IntList();
+                for (int i = 0; i < candidates.size; i++) {
+                    int v = candidates.values[i];
+                    if (dist.get(v) / delta == b && frontierStamp[v] != round) {
+                        frontierStamp[v] = round;
+                        frontier.add(v);
+                        settled.add(v);
+                    }
+                }
+                distribute(buckets, dist, delta, relax(graph, dist, frontier, delta, true));
+            }
+            distribute(buckets, dist, delta, relax(graph, dist, settled, delta, false));
+        }
+
+        int[] result = new int[n];
+        for (int v = 0; v < n; v++) result[v] = dist.get(v);
+        return new ShortestPathTree(graph, source, result, canonicalParents(graph, source, result));
+    }
+
+    // 松弛frontier中顶点的轻边或重边，返回距离被缩短的顶点（可能重复）
+    private static IntList relax(GraphSnapshot graph, AtomicIntegerArray dist, IntList frontier,
+                                 int delta, boolean light) {
+        if (frontier.size < PARALLEL_THRESHOLD) {
+            IntList improved = new IntList();
+            relaxRange(graph, dist, frontier, 0, frontier.size, delta, light, improved);
+            return improved;
+        }
+        int chunks = Math.min(frontier.size / (PARALLEL_THRESHOLD / 4),
+                Runtime.getRuntime().availableProcessors() * 4);
+        IntList[] improved = new IntList[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            improved[c] = new IntList();
+            relaxRange(graph, dist, frontier, (int) ((long) frontier.size * c / chunks),
+                    (int) ((long) frontier.size * (c + 1) / chunks), delta, light, improved[c]);
+        });
+        IntList all = new IntList();
+        for (IntList part : improved) all.addAll(part);
+        return all;
+    }
+
+    private static void relaxRange(GraphSnapshot graph, AtomicIntegerArray dist, IntList frontier,
+                                   int from, int to, int delta, boolean light, IntList improved) {
+        for (int i = from; i < to; i++) {
+            int u = frontier.values[i];
+            int du = dist.get(u);
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int weight = graph.weights[e];
+                if ((weight <= delta) != light) continue;
+                int v = graph.targets[e];
+                int newDist = du + weight;
+                int current = dist.get(v);
+                while (newDist < current) {
+                    if (dist.compareAndSet(v, current, newDist)) {
+                        improved.add(v);
+                        break;
+                    }
+                    current = dist.get(v);
+                }
+            }
+        }
+    }
+
+    // 把距离缩短的顶点放入新距离对应的桶，旧桶中的条目在取出时按距离过滤
+    private static void distribute(List<IntList> buckets, AtomicIntegerArray dist, int delta, IntList improved) {
+        for (int i = 0; i < improved.size; i++) {
+            int v = improved.values[i];
+            bucket(buckets, dist.get(v) / delta).add(v);
+        }
+    }
+
+    private static IntList bucket(List<IntList> buckets, int index) {
+        while (buckets.size() <= index) buckets.add(new IntList());
+        return buckets.get(index);
+    }
+
+    // 顺序Dijkstra按 (dist, id) 的顺序出堆，并且只在距离严格变小时更新前驱，
+    // 因此v的前驱是满足 dist[u] + w(u, v) == dist[v] 的入邻居中 (dist[u], u) 最小者
+    static int[] canonicalParents(GraphSnapshot graph, int source, int[] dist) {
+        int n = graph.size();
+        int[] parent = new int[n];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int best = -1;
+            if (v != source && dist[v] != GraphSnapshot.UNREACHABLE) {
+                for (int e = graph.inOffsets[v]; e < graph.inOffsets[v + 1]; e++) {
+                    int u = graph.inSources[e];
+                    if (dist[u] == GraphSnapshot.UNREACHABLE || dist[u] + graph.inWeights[e] != dist[v]) continue;
+                    if (best < 0 || dist[u] < dist[best] || (dist[u] == dist[best] && u < best)) {
+                        best = u;
+                    }
+                }
+            }
+            parent[v] = best;
+        });
+        return parent;
+    }
+
+    // 可增长的int数组
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.texttograph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// 构建阶段的边计数器：每个单词只在首次出现时分配一个整数ID，
+// 边以 (srcId << 32) | dstId 为键存入开放寻址的 long -> int 表（LongIntTable），
+// 逐词累加时不再为每对相邻单词创建Node、Edge或拼接字符串
+class EdgeCounter {
+    // 单词表：ID按首次出现顺序分配
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] words = new String[64];
+    private int[] termFrequency = new int[64];
+    private int wordCount;
+
+    // 边键 -> 边在下方数组中的下标
+    private final LongIntTable edgeIndex = new LongIntTable();
+
+    // 边按首次出现顺序存储
+    private int[] edgeSources = new int[64];
+    private int[] edgeTargets = new int[64];
+    private int[] edgeWeights = new int[64];
+    private int edgeCount;
+
+    private int firstWord = -1;
+    private int lastWord = -1;
+
+    // 接收下一个单词：统计词频，并与上一个单词连边
+    void accept(String word) {
+        int id = idOf(word);
+        termFrequency[id]++;
+        if (lastWord >= 0) {
+            addEdge(lastWord, id, 1);
+        } else {
+            firstWord = id;
+        }
+        lastWord = id;
+    }
+
+    // 从已有文本的最后一个单词继续计数：只用于连边，不计入词频
+    void continueFrom(String word) {
+        firstWord = lastWord = idOf(word);
+    }
+
+    // 把另一段计数结果接在当前文本之后，补上两段之间的那条边
+    void append(EdgeCounter next) {
+        if (next.firstWord < 0) return;
+        int[] remap = new int[next.wordCount];
+        for (int i = 0; i < next.wordCount; i++) {
+            remap[i] = idOf(next.words[i]);
+            termFrequency[remap[i]] += next.termFrequency[i];
+        }
+        if (lastWord >= 0) {
+            addEdge(lastWord, remap[next.firstWord], 1);
+        } else {
+            firstWord = remap[next.firstWord];
+        }
+        for (int e = 0; e < next.edgeCount; e++) {
+            addEdge(remap[next.edgeSources[e]], remap[next.edgeTargets[e]], next.edgeWeights[e]);
+        }
+        lastWord = remap[next.lastWord];
+    }
+
+    private int idOf(String word) {
+        Integer id = ids.get(word);
+        if (id != null) return id;
+        if (wordCount == words.length) {
+            words = Arrays.copyOf(words, wordCount * 2);
+            termFrequency = Arrays.copyOf(termFrequency, wordCount * 2);
+        }
+        words[wordCount] = word;
+        ids.put(word, wordCount);
+        return wordCount++;
+    }
+
+    private void addEdge(int source, int target, int weight) {
+        int existing = edgeIndex.putIfAbsent(LongIntTable.key(source, target), edgeCount);
+        if (existing >= 0) {
+            edgeWeights[existing] += weight;
+            return;
+        }
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            edgeWeights = Arrays.copyOf(edgeWeights, edgeCount * 2);
+        }
+        edgeSources[edgeCount] = source;
+        edgeTargets[edgeCount] = target;
+        edgeWeights[edgeCount] = weight;
+        edgeCount++;
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    String word(int id) {
+        return words[id];
+    }
+
+    int termFrequency(int id) {
+        return termFrequency[id];
+    }
+
+    int edgeCount() {
+        return edgeCount;
+    }
+
+    int edgeSource(int e) {
+        return edgeSources[e];
+    }
+
+    int edgeTarget(int e) {
+        return edgeTargets[e];
+    }
+
+    int edgeWeight(int e) {
+        return edgeWeights[e];
+    }
+
+    // 最后一个单词，不存在时为null
+    String lastWord() {
+        return lastWord < 0 ? null : words[lastWord];
+    }
+}
@@ -0,0 +1,281 @@
+package com.texttograph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// 力导向布局（Fruchterman-Reingold）：相连的节点相互吸引，所有节点两两排斥，另有指向中心的弱引力
+// 使不连通的部分不至于飘散。排斥力用Barnes-Hut四叉树近似：距离足够远的一组节点当作位于质心的
+// 一个质点，每轮O(n log n)。每轮先建树，再按节点分块在fork-join池上并行计算位移；
+// 每个节点的位移只取决于上一轮的位置，结果与线程数无关
+final class ForceLayout {
+    static final int DEFAULT_ITERATIONS = 300;
+    private static final double THETA = 0.9;         // 格子边长/距离小于此值时按质心近似
+    private static final double GRAVITY = 0.05;
+    private static final int NODES_PER_TASK = 1024;
+    private static final int MAX_DEPTH = 48;         // 重合的点不再细分
+
+    private final int n;
+    // 无向邻接表（CSR），吸引力按节点汇总，便于并行
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final double[] strengths;
+
+    // 边以端点下标给出，边权越大吸引越强（取对数避免高频词把邻居压成一团）；自环忽略
+    ForceLayout(int n, int[] sources, int[] targets, int[] weights) {
+        this.n = n;
+        this.offsets = new int[n + 1];
+        for (int e = 0; e < sources.length; e++) {
+            if (sources[e] == targets[e]) continue;
+            offsets[sources[e] + 1]++;
+            offsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        this.neighbors = new int[offsets[n]];
+        this.strengths = new double[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < sources.length; e++) {
+            int u = sources[e];
+            int v = targets[e];
+            if (u == v) continue;
+            double strength = 1 + Math.log(Math.max(1, weights[e]));
+            neighbors[next[u]] = v;
+            strengths[next[u]++] = strength;
+            neighbors[next[v]] = u;
+            strengths[next[v]++] = strength;
+        }
+    }
+
+    // 返回 {x, y}，理想边长为1，坐标大致落在以原点为中心、边长约为sqrt(n)的正方形内
+    double[][] layout(int iterations, long seed, ForkJoinPool pool) {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double side = Math.sqrt(Math.max(1, n));
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int v = 0; v < n; v++) {
+            x[v] = (random.nextDouble() - 0.5) * side;
+            y[v] = (random.nextDouble() - 0.5) * side;
+        }
+        if (n < 2) return new double[][] {x, y};
+
+        double[] dx = new double[n];
+        double[] dy = new double[n];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            // 调用线程被中断（渲染被取消）时提前结束
+            if (Thread.currentThread().isInterrupted()) break;
+            // 温度线性下降，限制每轮的最大位移
+            double temperature = side * 0.1 * (1 - (double) iteration / iterations) + 0.01;
+            QuadTree tree = new QuadTree(x, y);
+            List<Step> steps = new ArrayList<>();
+            for (int from = 0; from < n; from += NODES_PER_TASK) {
+                steps.add(new Step(tree, x, y, dx, dy, from, Math.min(n, from + NODES_PER_TASK), temperature));
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(steps);
+                }
+            });
+            for (int v = 0; v < n; v++) {
+                x[v] += dx[v];
+                y[v] += dy[v];
+            }
+        }
+        return new double[][] {x, y};
+    }
+
+    private final class Step extends RecursiveAction {
+        private final QuadTree tree;
+        private final double[] x;
+        private final double[] y;
+        private final double[] dx;
+        private final double[] dy;
+        private final int from;
+        private final int to;
+        private final double temperature;
+
+        Step(QuadTree tree, double[] x, double[] y, double[] dx, double[] dy, int from, int to, double temperature) {
+            this.tree = tree;
+            this.x = x;
+            this.y = y;
+            this.dx = dx;
+            this.dy = dy;
+            this.from = from;
+            this.to = to;
+            this.temperature = temperature;
+        }
+
+        @Override
+        protected void compute() {
+            double[] force = new double[2];
+            int[] stack = tree.newStack();
+            for (int v = from; v < to; v++) {
+                tree.repulsion(v, force, stack);
+                double fx = force[0] - GRAVITY * x[v];
+                double fy = force[1] - GRAVITY * y[v];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = neighbors[i];
+                    double ex = x[u] - x[v];
+                    double ey = y[u] - y[v];
+                    double distance = Math.sqrt(ex * ex + ey * ey);
+                    // 吸引力 d^2 / k，k = 1
+                    fx += ex * distance * strengths[i];
+                    fy += ey * distance * strengths[i];
+                }
+                double length = Math.sqrt(fx * fx + fy * fy);
+                double scale = length > temperature ? temperature / length : 1;
+                dx[v] = fx * scale;
+                dy[v] = fy * scale;
+            }
+        }
+    }
+
+    // 数组实现的四叉树。每个格子要么为空，要么存一个节点（叶子），要么有4个子格子；
+    // 格子记录其中节点的个数和质心
+    private static final class QuadTree {
+        private final double[] x;
+        private final double[] y;
+        private double[] centerX;
+        private double[] centerY;
+        private double[] half;
+        private double[] mass;
+        private double[] massX;
+        private double[] massY;
+        private int[] body;         // 叶子中的节点，-1表示没有
+        private int[] firstChild;   // 4个子格子中第一个的下标，-1表示没有
+        private int cells;
+
+        QuadTree(double[] x, double[] y) {
+            this.x = x;
+            this.y = y;
+            int capacity = Math.max(16, x.length * 2);
+            centerX = new double[capacity];
+            centerY = new double[capacity];
+            half = new double[capacity];
+            mass = new double[capacity];
+            massX = new double[capacity];
+            massY = new double[capacity];
+            body = new int[capacity];
+            firstChild = new int[capacity];
+
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int v = 0; v < x.length; v++) {
+                minX = Math.min(minX, x[v]);
+                maxX = Math.max(maxX, x[v]);
+                minY = Math.min(minY, y[v]);
+                maxY = Math.max(maxY, y[v]);
+            }
+            newCell((minX + maxX) / 2, (minY + maxY) / 2, Math.max(maxX - minX, maxY - minY) / 2 + 1e-9);
+            for (int v = 0; v < x.length; v++) {
+                insert(v);
+            }
+        }
+
+        private int newCell(double cx, double cy, double h) {
+            if (cells == body.length) {
+                int capacity = cells * 2;
+                centerX = Arrays.copyOf(centerX, capacity);
+                centerY = Arrays.copyOf(centerY, capacity);
+                half = Arrays.copyOf(half, capacity);
+                mass = Arrays.copyOf(mass, capacity);
+                massX = Arrays.copyOf(massX, capacity);
+                massY = Arrays.copyOf(massY, capacity);
+                body = Arrays.copyOf(body, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+            }
+            centerX[cells] = cx;
+            centerY[cells] = cy;
+            half[cells] = h;
+            mass[cells] = 0;
+            massX[cells] = 0;
+            massY[cells] = 0;
+            body[cells] = -1;
+            firstChild[cells] = -1;
+            return cells++;
+        }
+
+        private int quadrant(int cell, double px, double py) {
+            return (px >= centerX[cell] ? 1 : 0) + (py >= centerY[cell] ? 2 : 0);
+        }
+
+        private void insert(int v) {
+            int cell = 0;
+            for (int depth = 0; ; depth++) {
+                // 沿途更新质心
+                mass[cell]++;
+                massX[cell] += (x[v] - massX[cell]) / mass[cell];
+                massY[cell] += (y[v] - massY[cell]) / mass[cell];
+                if (firstChild[cell] < 0) {
+                    if (body[cell] < 0 && mass[cell] == 1) {
+                        body[cell] = v;
+                        return;
+                    }
+                    if (depth >= MAX_DEPTH) return;   // 与已有节点重合，只计入质量
+                    split(cell);
+                }
+                cell = firstChild[cell] + quadrant(cell, x[v], y[v]);
+            }
+        }
+
+        // 叶子分裂成4个子格子，原有节点移入对应的子格子
+        private void split(int cell) {
+            double h = half[cell] / 2;
+            int first = cells;
+            for (int q = 0; q < 4; q++) {
+                newCell(centerX[cell] + ((q & 1) == 0 ? -h : h), centerY[cell] + ((q & 2) == 0 ? -h : h), h);
+            }
+            firstChild[cell] = first;
+            int old = body[cell];
+            body[cell] = -1;
+            if (old >= 0) {
+                int child = first + quadrant(cell, x[old], y[old]);
+                body[child] = old;
+                mass[child] = mass[cell] - 1;
+                massX[child] = x[old];
+                massY[child] = y[old];
+            }
+        }
+
+        int[] newStack() {
+            return new int[4 * MAX_DEPTH + 4];
+        }
+
+        // 斥力 k^2 / d，k = 1；遍历用显式栈
+        void repulsion(int v, double[] force, int[] stack) {
+            double fx = 0;
+            double fy = 0;
+            int size = 0;
+            stack[size++] = 0;
+            while (size > 0) {
+                int cell = stack[--size];
+                if (mass[cell] == 0 || body[cell] == v) continue;
+                double ex = x[v] - massX[cell];
+                double ey = y[v] - massY[cell];
+                double distance2 = ex * ex + ey * ey;
+                if (firstChild[cell] >= 0 && 4 * half[cell] * half[cell] >= THETA * THETA * distance2) {
+                    for (int q = 0; q < 4; q++) {
+                        stack[size++] = firstChild[cell] + q;
+                    }
+                    continue;
+                }
+                if (distance2 < 1e-12) {
+                    // 重合时沿与下标相关的固定方向推开
+                    ex = Math.cos(v);
+                    ey = Math.sin(v);
+                    distance2 = 1e-4;
+                }
+                fx += ex * mass[cell] / distance2;
+                fy += ey * mass[cell] / distance2;
+            }
+            force[0] = fx;
+            force[1] = fy;
+        }
+    }
+}
@@ -2,108 +2,344 @@ package com.texttograph;
 
 import com.texttograph.model.Edge;
 import com.texttograph.model.Node;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 public class GraphBuilder {
-    private Set<Node> nodes;
+    // 节点按加入顺序编号，ID只追加；单词表与快照共用（并发读安全），不再各存一份
+    private final List<Node> nodeList = new ArrayList<>();
+    private final Map<String, Integer> nodeIds = new ConcurrentHashMap<>();
+    private final Set<Node> nodes = new NodeSet();
     private List<Edge> edges;
-    private Map<String, Edge> edgeMap;
-    // 添加邻接表加速查询桥接词查询
-    private Map<Node, Set<Node>> adjacencyList = new HashMap<>();//
+    private final LongIntTable edgeIndex = new LongIntTable();   // (srcId, dstId) -> edges中的下标
+    private volatile GraphSnapshot snapshot;      // 查询用的只读快照，图变化后重建；在ssspCache的锁内创建和丢弃
+    private static final int SSSP_CACHE_SIZE = 64;
+    private static final int GENERATOR_CACHE_SIZE = 4;
+    private volatile AllPairsShortestPaths allPairs;   // 全源最短路径预计算结果
+    private volatile LandmarkIndex landmarkIndex;      // 地标距离索引
+    // 按边权排序的后继和前驱，跨快照保留，追加文本时只失效变化的节点
+    private final TopKIndex successorIndex = new TopKIndex(true);
+    private final TopKIndex predecessorIndex = new TopKIndex(false);
+    private volatile ShortestPathTree.Engine shortestPathEngine = ShortestPathTree.Engine.DIJKSTRA;
+    // 单源最短路径树的LRU缓存，键为起点ID
+    private final Map<Integer, ShortestPathTree> ssspCache =
+            new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                    return size() > SSSP_CACHE_SIZE;
+                }
+            };
+    // 文本生成器按温度缓存（LRU），与快照的别名表一样在图变化前复用；温度不为1时每个生成器持有自己的别名表
+    private final Map<Double, MarkovTextGenerator> generatorCache =
+            new LinkedHashMap<Double, MarkovTextGenerator>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Double, MarkovTextGenerator> eldest) {
+                    return size() > GENERATOR_CACHE_SIZE;
+                }
+            };
     //最短路径计算dij
     public Map<Node, Integer> dijkstra(Node start) {
+        GraphSnapshot graph = snapshot();
+        int source = graph.id(start.getWord());
         Map<Node, Integer> distances = new HashMap<>();
-        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(n -> distances.getOrDefault(n, Integer.MAX_VALUE)));
-
-        // 初始化
-        distances.put(start, 0);
-        queue.add(start);
-
-        while (!queue.isEmpty()) {
-            Node current = queue.poll();
-            for (Edge edge : getEdgesFrom(current)) {
-                Node neighbor = edge.getTarget();
-                int newDist = distances.get(current) + edge.getWeight();
-                if (newDist < distances.getOrDefault(neighbor, Integer.MAX_VALUE)) {
-                    distances.put(neighbor, newDist);
-                    queue.add(neighbor);
-                }
+        if (source < 0) {
+            distances.put(start, 0);
+            return distances;
+        }
+        ShortestPathTree tree = shortestPathsFrom(source);
+        for (int v = 0; v < graph.size(); v++) {
+            if (tree.isReachable(v)) {
+                distances.put(graph.node(v), tree.distance(v));
             }
         }
         return distances;
     }
+
+    // 单源最短路径树：一次遍历得到到所有可达节点的距离和前驱，路径按需回溯。
+    // 结果按起点缓存（LRU），图变化后清空；单词不存在时返回null
+    public ShortestPathTree shortestPathsFrom(String word) {
+        int source = snapshot().id(word.toLowerCase());
+        return source < 0 ? null : shortestPathsFrom(source);
+    }
+
+    // 计算在锁外进行，不阻塞其他起点的查询；并发计算同一起点时保留先放入缓存的结果，
+    // 计算期间图已变化时结果不放入缓存
+    private ShortestPathTree shortestPathsFrom(int source) {
+        ShortestPathTree cached = cachedShortestPaths(source);
+        if (cached != null) return cached;
+        GraphSnapshot graph = snapshot();
+        ShortestPathTree tree = ShortestPathTree.compute(graph, source, shortestPathEngine);
+        synchronized (ssspCache) {
+            if (snapshot != graph) return tree;
+            ShortestPathTree existing = ssspCache.putIfAbsent(source, tree);
+            return existing != null ? existing : tree;
+        }
+    }
+
+    // 选择单源最短路径引擎，各引擎结果相同，已缓存的树不受影响。
+    // 选择DIAL或DELTA_STEPPING时，getShortestPath也改为计算并缓存整棵最短路径树
+    public void setShortestPathEngine(ShortestPathTree.Engine engine) {
+        shortestPathEngine = engine;
+    }
+
+    public ShortestPathTree.Engine getShortestPathEngine() {
+        return shortestPathEngine;
+    }
+
+    // 可选的全源最短路径预计算：完成后getShortestPath直接查表；图变化后结果作废。
+    // 取消返回的Future会转发给计算本身，计算在下一个起点处停止；spillDirectory为null时使用系统临时目录
+    public CompletableFuture<AllPairsShortestPaths> precomputeAllPairs(
+            Path spillDirectory, AllPairsShortestPaths.ProgressListener listener) {
+        GraphSnapshot graph = snapshot();
+        CompletableFuture<AllPairsShortestPaths> computation =
+                AllPairsShortestPaths.computeAsync(graph, spillDirectory, listener);
+        CompletableFuture<AllPairsShortestPaths> installed = computation.thenApply(result -> {
+            synchronized (ssspCache) {
+                if (snapshot == graph) {
+                    allPairs = result;
+                }
+            }
+            return result;
+        });
+        installed.whenComplete((result, error) -> {
+            if (installed.isCancelled()) computation.cancel(false);
+        });
+        return installed;
+    }
+
+    // 建立地标（ALT）索引：之后getShortestPath使用A*搜索，并可以不经搜索给出距离区间
+    public LandmarkIndex buildLandmarkIndex(int count, LandmarkIndex.Selection selection) {
+        GraphSnapshot graph = snapshot();
+        LandmarkIndex index = LandmarkIndex.build(graph, count, selection);
+        synchronized (ssspCache) {
+            if (snapshot == graph) {
+                landmarkIndex = index;
+            }
+        }
+        return index;
+    }
+
+    // 加载与图一起保存的地标索引，图内容不一致时抛出IOException
+    public LandmarkIndex loadLandmarkIndex(Path path) throws IOException {
+        GraphSnapshot graph = snapshot();
+        LandmarkIndex index = LandmarkIndex.load(path, graph);
+        synchronized (ssspCache) {
+            if (snapshot == graph) {
+                landmarkIndex = index;
+            }
+        }
+        return index;
+    }
+
+    public LandmarkIndex getLandmarkIndex() {
+        return landmarkIndex;
+    }
+
+    // 近似距离：只查地标索引，不做搜索；没有索引或单词不存在时返回null
+    public LandmarkIndex.Bounds approximateDistance(String word1, String word2) {
+        LandmarkIndex index = landmarkIndex;
+        if (index == null) return null;
+        int start = index.graph().id(word1.toLowerCase());
+        int end = index.graph().id(word2.toLowerCase());
+        if (start < 0 || end < 0) return null;
+        return index.bounds(start, end);
+    }
+
+    private ShortestPathTree cachedShortestPaths(int source) {
+        synchronized (ssspCache) {
+            return ssspCache.get(source);
+        }
+    }
     //计算pagerank,使用TF-IDF进行初始化
-    private Map<Node, Integer> termFrequencyMap;  // 词频统计
-    private Map<Node, List<Edge>> inEdgesMap;     // 入边映射
-    private Map<Node, Integer> outDegreeMap;      // 出链数统计
+    private int[] termFrequency = new int[64];    // 词频统计，按节点ID
+    private EdgeCounter pending;                  // 构建过程中的边计数器
+    private String lastWord;                      // 已加入文本的最后一个单词，追加时与新文本连边
+    private int pendingFrequency;                 // lastWord还没有节点时的词频，成为节点时补上
     // PageRank结果封装类
     public static class PageRankResult {
         public final Map<Node, Double> values;
         public final int iterations;
+        // 本次计算中单独写入了新值的节点数，完整计算为全部节点；增量更新吸收均匀残差时
+        // 所有节点共同乘上的缩放因子只记一次，不计入
+        public final int touchedNodes;
+
+        // 增量更新所需的状态，按快照ID索引
+        final GraphSnapshot graph;
+        final RankVector ranks;
+        final double dampingFactor;
+        final double danglingSum;
+        final double rankSum;
+        final double residual;           // 残差L1范数的上界，含均匀吸收的一阶近似误差
 
         public PageRankResult(Map<Node, Double> values, int iterations) {
+            this(values, iterations, values.size(), null, null, 0, 0, 0, 0);
+        }
+
+        PageRankResult(Map<Node, Double> values, int iterations, int touchedNodes, GraphSnapshot graph,
+                       RankVector ranks, double dampingFactor, double danglingSum, double rankSum, double residual) {
             this.values = Collections.unmodifiableMap(values);
             this.iterations = iterations;
+            this.touchedNodes = touchedNodes;
+            this.graph = graph;
+            this.ranks = ranks;
+            this.dampingFactor = dampingFactor;
+            this.danglingSum = danglingSum;
+            this.rankSum = rankSum;
+            this.residual = residual;
         }
     }
 
     public GraphBuilder() {
-        nodes = new HashSet<>();
         edges = new ArrayList<>();
-        edgeMap = new HashMap<>();
-
     }
 
     public void buildGraph(List<String> words) {
         if (words.size() < 2) return;
 
-        for (int i = 0; i < words.size() - 1; i++) {
-            String currentWord = words.get(i);
-            String nextWord = words.get(i + 1);
+        resetBuild();
+        for (String word : words) {
+            addWord(word);
+        }
+        finishBuild();
+    }
 
-            Node source = new Node(currentWord);
-            Node target = new Node(nextWord);
+    // 流式构建：分词结果直接逐词写入图中，不需要先把整篇语料读成String和List
+    public void buildGraph(Reader reader) throws IOException {
+        resetBuild();
+        TextProcessor.processText(reader, this::addWord);
+        finishBuild();
+    }
 
-            nodes.add(source);
-            nodes.add(target);
-            //维护邻接表
-            adjacencyList.computeIfAbsent(source, k -> new HashSet<>()).add(target);
+    public void buildGraph(Path path) throws IOException {
+        resetBuild();
+        TextProcessor.processText(path, this::addWord);
+        finishBuild();
+    }
 
-            String edgeKey = source + "->" + target;
-            Edge edge = edgeMap.get(edgeKey);
+    // 增量接收一个单词，只在计数器中按整数ID累加
+    private void addWord(String word) {
+        pending.accept(word);
+    }
 
-            if (edge == null) {
-                edge = new Edge(source, target, 1);
-                edges.add(edge);
-                edgeMap.put(edgeKey, edge);
-            } else {
-                edge.incrementWeight();
-            }
+    void resetBuild() {
+        pending = new EdgeCounter();
+    }
+
+    void finishBuild() {
+        finishBuild(pending);
+        pending = null;
+    }
+
+    // 重新构建时词频只统计本次文本，边在已有图上累加
+    void finishBuild(EdgeCounter counter) {
+        Arrays.fill(termFrequency, 0);
+        pendingFrequency = 0;
+        apply(counter);
+    }
 
+    // 内存映射 + fork-join 并行导入大文件，结果与 buildGraph 相同
+    public void buildGraphParallel(Path path) throws IOException {
+        ParallelCorpusLoader.load(this, path);
+    }
+
+    // 增量追加：新文本接在上一批文本的最后一个单词之后，只更新变化的节点和边
+    public void appendWords(List<String> words) {
+        EdgeCounter counter = new EdgeCounter();
+        if (lastWord != null) {
+            counter.continueFrom(lastWord);
         }
-        // 1. 统计词频
-        termFrequencyMap = new HashMap<>();
         for (String word : words) {
-            Node node = new Node(word);
-            termFrequencyMap.put(node, termFrequencyMap.getOrDefault(node, 0) + 1);
+            counter.accept(word);
         }
+        apply(counter);
+    }
+
+    public void appendText(String text) {
+        appendWords(TextProcessor.processText(text));
+    }
 
-        // 2. 构建入边映射
-        inEdgesMap = new HashMap<>();
-        for (Edge edge : edges) {
-            Node target = edge.getTarget();
-            inEdgesMap.computeIfAbsent(target, k -> new ArrayList<>()).add(edge);
+    public void appendText(Reader reader) throws IOException {
+        EdgeCounter counter = new EdgeCounter();
+        if (lastWord != null) {
+            counter.continueFrom(lastWord);
         }
+        TextProcessor.processText(reader, counter::accept);
+        apply(counter);
+    }
 
-        // 3. 统计出链数
-        outDegreeMap = adjacencyList.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> e.getValue().size()
-                ));
+    // 把计数结果合并进图中：每个单词只创建一个Node，每条新边只创建一个Edge，
+    // 词频只针对变化的部分原地更新。单词在第一次出现在边中时成为节点
+    private void apply(EdgeCounter counter) {
+        int[] byId = new int[counter.wordCount()];
+        Arrays.fill(byId, -1);
+        for (int e = 0; e < counter.edgeCount(); e++) {
+            int source = counter.edgeSource(e);
+            int target = counter.edgeTarget(e);
+            if (byId[source] < 0) byId[source] = nodeId(counter.word(source));
+            if (byId[target] < 0) byId[target] = nodeId(counter.word(target));
+            addEdge(byId[source], byId[target], counter.edgeWeight(e));
+        }
+        int unplaced = 0;
+        for (int id = 0; id < byId.length; id++) {
+            Integer node = byId[id] >= 0 ? Integer.valueOf(byId[id]) : nodeIds.get(counter.word(id));
+            if (node != null) {
+                termFrequency[node] += counter.termFrequency(id);
+            } else {
+                unplaced += counter.termFrequency(id);   // 只可能是没有连边的最后一个单词
+            }
+        }
+        if (pendingFrequency > 0) {
+            Integer id = nodeIds.get(lastWord);
+            if (id != null) {
+                termFrequency[id] += pendingFrequency;
+                pendingFrequency = 0;
+            }
+        }
+        pendingFrequency += unplaced;
+        if (counter.lastWord() != null) {
+            lastWord = counter.lastWord();
+        }
+        graphChanged();
+    }
 
+    private int nodeId(String word) {
+        Integer id = nodeIds.get(word);
+        if (id != null) return id;
+        int next = nodeList.size();
+        nodeList.add(new Node(word));
+        if (next == termFrequency.length) {
+            termFrequency = Arrays.copyOf(termFrequency, next * 2);
+        }
+        nodeIds.put(word, next);
+        return next;
+    }
+
+    private void addEdge(int source, int target, int weight) {
+        int existing = edgeIndex.putIfAbsent(LongIntTable.key(source, target), edges.size());
+        if (existing < 0) {
+            edges.add(new Edge(nodeList.get(source), nodeList.get(target), weight));
+        } else {
+            edges.get(existing).addWeight(weight);
+        }
+        successorIndex.invalidate(nodeList.get(source).getWord());
+        predecessorIndex.invalidate(nodeList.get(target).getWord());
+    }
+
+    // 图结构发生变化后，丢弃依赖旧结构的快照
+    private void graphChanged() {
+        synchronized (ssspCache) {
+            snapshot = null;
+            allPairs = null;
+            landmarkIndex = null;
+            ssspCache.clear();
+            generatorCache.clear();
+        }
     }
 
     public Set<Node> getNodes() {
@@ -114,6 +350,42 @@ public class GraphBuilder {
         return edges;
     }
 
+    // 冻结的CSR快照，所有查询算法都在快照上运行；只需查询时可以只保留快照。
+    // 快照与本图共用单词表，只另外保存CSR数组和词频
+    // 双重检查：并发查询只创建一份快照，大家拿到同一对象，按快照比较的缓存才能共享
+    public GraphSnapshot snapshot() {
+        GraphSnapshot graph = snapshot;
+        if (graph == null) {
+            synchronized (ssspCache) {
+                graph = snapshot;
+                if (graph == null) {
+                    graph = GraphSnapshot.of(nodeList, nodeIds, edges,
+                            Arrays.copyOf(termFrequency, nodeList.size()));
+                    snapshot = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    // getNodes返回的只读视图：按加入顺序迭代，contains查单词表，不另建LinkedHashSet
+    private final class NodeSet extends AbstractSet<Node> {
+        @Override
+        public Iterator<Node> iterator() {
+            return Collections.unmodifiableList(nodeList).iterator();
+        }
+
+        @Override
+        public int size() {
+            return nodeList.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Node && nodeIds.containsKey(((Node) o).getWord());
+        }
+    }
+
     public void printGraph() {
         System.out.println("Nodes: " + nodes.size());
         nodes.forEach(node -> System.out.println(node));
@@ -123,86 +395,64 @@ public class GraphBuilder {
     }
     //新增桥接词查询方法
     public List<String> queryBridgeWords(String word1, String word2) {
-        Node node1 = new Node(word1.toLowerCase());
-        Node node2 = new Node(word2.toLowerCase());
+        GraphSnapshot graph = snapshot();
+        int id1 = graph.id(word1.toLowerCase());
+        int id2 = graph.id(word2.toLowerCase());
 
         // 验证节点存在性
-        if (!nodes.contains(node1)) return Collections.singletonList("NO_WORD1");
-        if (!nodes.contains(node2)) return Collections.singletonList("NO_WORD2");
-
-        List<String> bridges = new ArrayList<>();
-
-        // 查找桥接词逻辑
-        Set<Node> word1Neighbors = adjacencyList.getOrDefault(node1, Collections.emptySet());
-        for (Node bridge : word1Neighbors) {
-            if (adjacencyList.getOrDefault(bridge, Collections.emptySet()).contains(node2)) {
-                bridges.add(bridge.getWord());
-            }
-        }
+        if (id1 < 0) return Collections.singletonList("NO_WORD1");
+        if (id2 < 0) return Collections.singletonList("NO_WORD2");
 
+        List<String> bridges = graph.bridges(id1, id2);
         return bridges.isEmpty() ? Collections.singletonList("NO_BRIDGE") : bridges;
     }
     public List<String> getValidBridges(String word1, String word2) {
-        Node node1 = new Node(word1.toLowerCase());
-        Node node2 = new Node(word2.toLowerCase());
+        GraphSnapshot graph = snapshot();
+        int id1 = graph.id(word1.toLowerCase());
+        int id2 = graph.id(word2.toLowerCase());
 
         // 检查节点是否存在
-        if (!nodes.contains(node1)) return Collections.emptyList();
-        if (!nodes.contains(node2)) return Collections.emptyList();
-
-        List<String> bridges = new ArrayList<>();
-        Set<Node> neighbors = adjacencyList.getOrDefault(node1, Collections.emptySet());
-
-        for (Node bridge : neighbors) {
-            if (adjacencyList.getOrDefault(bridge, Collections.emptySet()).contains(node2)) {
-                bridges.add(bridge.getWord());
-            }
-        }
-        return bridges;
-    }
-    //获取节点所有出边
-    private List<Edge> getEdgesFrom(Node node) {
-        return edges.stream()
-                .filter(e -> e.getSource().equals(node))
-                .collect(Collectors.toList());
+        if (id1 < 0 || id2 < 0) return Collections.emptyList();
+        return graph.bridges(id1, id2);
     }
+
     // 获取两点间最短路径（重构路径）
     public PathResult getShortestPath(String word1, String word2) {
-        Node start = new Node(word1.toLowerCase());
-        Node end = new Node(word2.toLowerCase());
-
-        if (!nodes.contains(start)) return new PathResult("START_NOT_FOUND");
-        if (!nodes.contains(end)) return new PathResult("END_NOT_FOUND");
-
-        // 执行Dijkstra算法
-        Map<Node, Integer> distances = dijkstra(start);
-        if (!distances.containsKey(end)) return new PathResult("NO_PATH");
+        GraphSnapshot graph = snapshot();
+        int start = graph.id(word1.toLowerCase());
+        int end = graph.id(word2.toLowerCase());
+
+        if (start < 0) return new PathResult("START_NOT_FOUND");
+        if (end < 0) return new PathResult("END_NOT_FOUND");
+
+        // 已有全源预计算结果时直接查表
+        AllPairsShortestPaths table = allPairs;
+        if (table != null && table.graph() == graph) {
+            int distance = table.distance(start, end);
+            if (distance == GraphSnapshot.UNREACHABLE) return new PathResult("NO_PATH");
+            return new PathResult(table.path(start, end), distance);
+        }
 
-        // 重构路径
-        List<Node> path = reconstructPath(start, end, distances);
-        return new PathResult(path, distances.get(end));
-    }
+        // 起点已有缓存的最短路径树时直接查询
+        ShortestPathTree tree = cachedShortestPaths(start);
+        if (tree != null) {
+            if (!tree.isReachable(end)) return new PathResult("NO_PATH");
+            return new PathResult(tree.path(end), tree.distance(end));
+        }
 
-    // 路径重构辅助方法
-    private List<Node> reconstructPath(Node start, Node end, Map<Node, Integer> dist) {
-        LinkedList<Node> path = new LinkedList<>();
-        Node current = end;
-        while (!current.equals(start)) {
-            path.addFirst(current);
-            current = findPredecessor(current, dist);
-            if (current == null) return Collections.emptyList();
+        if (shortestPathEngine != ShortestPathTree.Engine.DIJKSTRA) {
+            tree = shortestPathsFrom(start);
+            if (!tree.isReachable(end)) return new PathResult("NO_PATH");
+            return new PathResult(tree.path(end), tree.distance(end));
         }
-        path.addFirst(start);
-        return path;
-    }
 
-    private Node findPredecessor(Node node, Map<Node, Integer> dist) {
-        return edges.stream()
-                .filter(e -> e.getTarget().equals(node))
-                .filter(e -> dist.getOrDefault(e.getSource(), Integer.MAX_VALUE) + e.getWeight() == dist.get(node))
-                .map(Edge::getSource)
-                .findFirst()
-                .orElse(null);
+        // 有地标索引时用A*搜索，否则执行双向Dijkstra，两侧搜索相遇并证明最优后停止
+        LandmarkIndex index = landmarkIndex;
+        SearchResult result = index != null && index.graph() == graph
+                ? index.search(start, end)
+                : BidirectionalDijkstra.search(graph, start, end);
+        if (result.distance == GraphSnapshot.UNREACHABLE) return new PathResult("NO_PATH");
+        return new PathResult(result.path, result.distance);
     }
 
     // 路径结果封装类
@@ -220,119 +470,118 @@ public class GraphBuilder {
     }
     //PageRank计算方法
     public PageRankResult calculatePageRank(double dampingFactor, double epsilon, int maxIter) {
-        final int N = nodes.size();
-        if (N == 0) return new PageRankResult(Collections.emptyMap(), 0);
-
-        Map<Node, Double> pageRank = new HashMap<>();
-        Map<Node, Double> newRank = new HashMap<>();
-
-        // 1. TF-IDF初始化（保持原有逻辑）
-        final double logN = Math.log(N);
-        double sumTFIDF = nodes.stream()
-                .mapToDouble(node -> {
-                    int tf = termFrequencyMap.getOrDefault(node, 0);
-                    int df = outDegreeMap.getOrDefault(node, 0) + 1; // 避免除零
-                    double idf = logN - Math.log(df);
-                    return tf * idf;
-                })
-                .sum();
-        final double finalSumTFIDF = sumTFIDF;
-
-        Map<Node, Double> finalPageRank = pageRank;
-        nodes.forEach(node -> {
-            int tf = termFrequencyMap.getOrDefault(node, 0);
-            int df = outDegreeMap.getOrDefault(node, 0) + 1;
-            double idf = logN - Math.log(df);
-            finalPageRank.put(node, (tf * idf) / finalSumTFIDF);
-        });
+        return snapshot().pageRank(dampingFactor, epsilon, maxIter);
+    }
 
-        // 2. 迭代计算（修正部分）
-        int iter = 0;
-        for (; iter < maxIter; iter++) {
-            // 计算悬挂节点贡献（出度为0的节点）
-            double danglingSum = nodes.stream()
-                    .filter(n -> outDegreeMap.getOrDefault(n, 0) == 0)
-                    .mapToDouble(pageRank::get)
-                    .sum();
-
-            // 计算常量项：(1-d)/N + d*(danglingSum/N)
-            final double constTerm = (1 - dampingFactor)/N + dampingFactor * danglingSum/N;
-
-            // 计算每个节点的新PageRank
-            Map<Node, Double> finalPageRank1 = pageRank;
-            Map<Node, Double> finalNewRank = newRank;
-            nodes.forEach(node -> {
-                double incomingSum = inEdgesMap.getOrDefault(node, Collections.emptyList())
-                        .stream()
-                        .mapToDouble(edge -> {
-                            Node src = edge.getSource();
-                            int outDegree = outDegreeMap.getOrDefault(src, 0);
-
-                            // 关键修正：出度为0时使用N作为分母
-                            double denominator = (outDegree == 0) ? N : outDegree;
-                            return finalPageRank1.get(src) / denominator;
-                        })
-                        .sum();
-
-                finalNewRank.put(node, constTerm + dampingFactor * incomingSum);
-            });
-
-            // 检查收敛条件
-            Map<Node, Double> finalNewRank1 = newRank;
-            Map<Node, Double> finalPageRank2 = pageRank;
-            double diff = nodes.stream()
-                    .mapToDouble(n -> Math.abs(finalNewRank1.get(n) - finalPageRank2.get(n)))
-                    .sum();
-            if (diff < epsilon) break;
-
-            // 交换引用准备下一轮迭代
-            Map<Node, Double> temp = pageRank;
-            pageRank = newRank;
-            newRank = temp;
-            newRank.clear();
-        }
-
-        return new PageRankResult(pageRank, iter + 1);
+    // 增量PageRank：从上一次的结果出发，只从入边或出度发生变化的节点推送残差。
+    // previous必须来自本图较早的快照，否则（或阻尼系数不同时）退回完整计算
+    public PageRankResult updatePageRank(PageRankResult previous, double dampingFactor, double epsilon, int maxIter) {
+        GraphSnapshot graph = snapshot();
+        GraphSnapshot old = previous == null ? null : previous.graph;
+        if (old == null || previous.dampingFactor != dampingFactor || !isEarlierSnapshot(old, graph)) {
+            return calculatePageRank(dampingFactor, epsilon, maxIter);
+        }
+        // 节点和边都只会追加，旧快照之后加入的边就是全部结构变化；边的起点出度变了
+        List<Edge> added = edges.subList(old.edgeCount(), edges.size());
+        int[] changedSources = new int[added.size()];
+        for (int i = 0; i < changedSources.length; i++) {
+            changedSources[i] = graph.id(added.get(i).getSource().getWord());
+        }
+        return IncrementalPageRank.update(previous, graph, changedSources, epsilon, maxIter,
+                ForkJoinPool.commonPool());
+    }
+
+    // 最可能的k个后继词（按边权降序），单词不存在时返回null
+    public List<Neighbor> topSuccessors(String word, int k) {
+        return top(successorIndex, word, k);
     }
-    //随机游走
-    public RandomWalkResult randomWalk() {
-        List<Node> path = new ArrayList<>();
-        Set<Edge> visitedEdges = new HashSet<>();
-        int totalWeight = 0; // 新增权重累计
-
-        // 1. 随机选择起始节点
-        List<Node> nodeList = new ArrayList<>(nodes);
-        if (nodeList.isEmpty()) return new RandomWalkResult(Collections.emptyList(), "空图",0);
-
-        Node current = nodeList.get(ThreadLocalRandom.current().nextInt(nodeList.size()));
-        path.add(current);
-
-        // 2. 开始遍历
-        while (true) {
-            // 获取当前节点的所有出边
-            List<Edge> outEdges = getEdgesFrom(current);
-            if (outEdges.isEmpty()) break;
-
-            // 随机选择一条边
-            Edge chosenEdge = outEdges.get(ThreadLocalRandom.current().nextInt(outEdges.size()));
-
-            // 3. 终止条件判断
-            if (visitedEdges.contains(chosenEdge)) {
-                path.add(chosenEdge.getTarget());
-                return new RandomWalkResult(
-                        path,
-                        "发现重复边: " + chosenEdge.getSource() + "→" + chosenEdge.getTarget(),
-                        totalWeight); // 不累加重复边权重
-            }
 
-            // 4. 记录路径
-            totalWeight += chosenEdge.getWeight(); // 累加权重
-            visitedEdges.add(chosenEdge);
-            current = chosenEdge.getTarget();
-            path.add(current);
+    // 最可能的k个前驱词（按边权降序），单词不存在时返回null
+    public List<Neighbor> topPredecessors(String word, int k) {
+        return top(predecessorIndex, word, k);
+    }
+
+    private List<Neighbor> top(TopKIndex index, String word, int k) {
+        GraphSnapshot graph = snapshot();
+        int id = graph.id(word.toLowerCase());
+        if (id < 0) return null;
+        int[][] top = index.top(graph, id, Math.max(0, k));
+        List<Neighbor> result = new ArrayList<>(top[0].length);
+        for (int i = 0; i < top[0].length; i++) {
+            result.add(new Neighbor(graph.node(top[0][i]), top[1][i]));
+        }
+        return result;
+    }
+
+    public static class Neighbor {
+        public final Node node;
+        public final int weight;
+
+        Neighbor(Node node, int weight) {
+            this.node = node;
+            this.weight = weight;
         }
+    }
+
+    // 从种子词出发按边权生成tokens个词的文本，temperature调整分布的平坦程度；单词不存在时返回null
+    public String generateText(String seedWord, int tokens, double temperature) {
+        GraphSnapshot graph = snapshot();
+        if (graph.id(seedWord.toLowerCase()) < 0) return null;
+        return textGenerator(graph, temperature).withSeed(new Random().nextLong()).generate(seedWord, tokens);
+    }
+
+    // 与shortestPathsFrom相同：在锁外构建，图已变化时不放入缓存
+    private MarkovTextGenerator textGenerator(GraphSnapshot graph, double temperature) {
+        synchronized (ssspCache) {
+            MarkovTextGenerator cached = generatorCache.get(temperature);
+            if (cached != null && snapshot == graph) return cached;
+        }
+        MarkovTextGenerator generator = new MarkovTextGenerator(graph, temperature, 0);
+        synchronized (ssspCache) {
+            if (snapshot != graph) return generator;
+            MarkovTextGenerator existing = generatorCache.putIfAbsent(temperature, generator);
+            return existing != null ? existing : generator;
+        }
+    }
+
+    // 个性化PageRank：以单个单词为种子，返回前k个节点；单词不存在时返回null
+    public PersonalizedPageRank.Result personalizedPageRank(String word, double dampingFactor, int k,
+                                                            PersonalizedPageRank.Mode mode, double accuracy) {
+        return personalizedPageRank(Collections.singletonMap(word, 1.0), dampingFactor, k, mode, accuracy);
+    }
+
+    // 带权重的种子集合，不存在的单词被忽略，全部不存在时返回null
+    public PersonalizedPageRank.Result personalizedPageRank(Map<String, Double> seeds, double dampingFactor, int k,
+                                                            PersonalizedPageRank.Mode mode, double accuracy) {
+        GraphSnapshot graph = snapshot();
+        int[] ids = new int[seeds.size()];
+        double[] weights = new double[seeds.size()];
+        int count = 0;
+        for (Map.Entry<String, Double> seed : seeds.entrySet()) {
+            int id = graph.id(seed.getKey().toLowerCase());
+            if (id >= 0) {
+                ids[count] = id;
+                weights[count++] = seed.getValue();
+            }
+        }
+        if (count == 0) return null;
+        return new PersonalizedPageRank(graph, Arrays.copyOf(ids, count), Arrays.copyOf(weights, count))
+                .compute(dampingFactor, k, mode, accuracy);
+    }
+
+    // 快照中的Node对象来自本图，ID与边都只追加，比较最后一个旧节点即可确认
+    private boolean isEarlierSnapshot(GraphSnapshot old, GraphSnapshot graph) {
+        if (old.size() > graph.size() || old.edgeCount() > edges.size()) return false;
+        return old.size() == 0 || old.node(old.size() - 1) == graph.node(old.size() - 1);
+    }
+    //随机游走
+    public RandomWalkResult randomWalk() {
+        return snapshot().randomWalk();
+    }
 
-        return new RandomWalkResult(path, "无出边终止",totalWeight);
+    // 按边权和node2vec参数(p, q)偏置的随机游走
+    public RandomWalkResult randomWalk(boolean weighted, double p, double q) {
+        return snapshot().randomWalk(weighted, p, q);
     }
 
     // 结果封装类
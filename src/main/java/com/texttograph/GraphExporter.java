@@ -0,0 +1,181 @@
+package com.texttograph;
+
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 流式导出DOT/GraphML：直接遍历图自身的节点集合和边列表逐行写出，不复制成JGraphT图，
+// 也不为每个元素建属性表；输出经缓冲写入文件通道。高亮路径的节点和边事先放入哈希表，每次查询O(1)。
+// 单词作为带引号的ID写出，包含任何字符都合法
+public class GraphExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // 写出DOT文件。path为null时按普通样式输出（边标签为蓝色权重）；
+    // 否则高亮路径上的节点和边，并以title作为图的标题
+    public static void writeDot(Collection<Node> nodes, List<Edge> edges, Path file,
+                                List<Node> path, String title) throws IOException {
+        Highlight highlight = path == null ? null : new Highlight(path);
+        try (Writer out = openWriter(file)) {
+            out.write("strict digraph G {\n");
+            if (highlight != null && title != null) {
+                out.write("  label=");
+                writeQuoted(out, title);
+                out.write(";\n  labelloc=\"t\";\n  labeljust=\"l\";\n  fontsize=\"16\";\n");
+            }
+            for (Node node : nodes) {
+                out.write("  ");
+                writeQuoted(out, node.getWord());
+                if (highlight != null && highlight.nodes.contains(node.getWord())) {
+                    out.write(" [ color=\"red\" penwidth=\"3\" style=\"filled\" fillcolor=\"#FFF3E0\" ]");
+                }
+                out.write(";\n");
+            }
+            for (Edge edge : edges) {
+                String source = edge.getSource().getWord();
+                String target = edge.getTarget().getWord();
+                out.write("  ");
+                writeQuoted(out, source);
+                out.write(" -> ");
+                writeQuoted(out, target);
+                out.write(" [ label=\"");
+                out.write(Integer.toString(edge.getWeight()));
+                if (highlight == null) {
+                    out.write(".0\" fontsize=\"10\" fontcolor=\"blue\" ];\n");
+                } else if (highlight.containsEdge(source, target)) {
+                    out.write(".0\" fontsize=\"10\" color=\"blue\" penwidth=\"3\" ];\n");
+                } else {
+                    out.write(".0\" fontsize=\"10\" color=\"gray\" ];\n");
+                }
+            }
+            out.write("}\n");
+        }
+    }
+
+    // 写出GraphML文件，边权为weight属性；path不为null时路径上的节点和边带onPath=true
+    public static void writeGraphML(Collection<Node> nodes, List<Edge> edges, Path file,
+                                    List<Node> path) throws IOException {
+        Highlight highlight = path == null ? null : new Highlight(path);
+        try (Writer out = openWriter(file)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+                    + "  <key id=\"weight\" for=\"edge\" attr.name=\"weight\" attr.type=\"int\"/>\n"
+                    + "  <key id=\"onPath\" for=\"all\" attr.name=\"onPath\" attr.type=\"boolean\">"
+                    + "<default>false</default></key>\n"
+                    + "  <graph id=\"G\" edgedefault=\"directed\">\n");
+            for (Node node : nodes) {
+                out.write("    <node id=\"");
+                writeXml(out, node.getWord());
+                if (highlight != null && highlight.nodes.contains(node.getWord())) {
+                    out.write("\"><data key=\"onPath\">true</data></node>\n");
+                } else {
+                    out.write("\"/>\n");
+                }
+            }
+            for (Edge edge : edges) {
+                String source = edge.getSource().getWord();
+                String target = edge.getTarget().getWord();
+                out.write("    <edge source=\"");
+                writeXml(out, source);
+                out.write("\" target=\"");
+                writeXml(out, target);
+                out.write("\"><data key=\"weight\">");
+                out.write(Integer.toString(edge.getWeight()));
+                out.write("</data>");
+                if (highlight != null && highlight.containsEdge(source, target)) {
+                    out.write("<data key=\"onPath\">true</data>");
+                }
+                out.write("</edge>\n");
+            }
+            out.write("  </graph>\n</graphml>\n");
+        }
+    }
+
+    private static Writer openWriter(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                BUFFER_SIZE);
+    }
+
+    // DOT的带引号ID：转义反斜杠、引号和换行
+    private static void writeQuoted(Writer out, String text) throws IOException {
+        out.write('"');
+        if (!needsEscape(text, "\"\\\n")) {
+            out.write(text);
+            out.write('"');
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c == '\n') {
+                out.write("\\n");
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+
+    private static void writeXml(Writer out, String text) throws IOException {
+        if (!needsEscape(text, "&<>\"")) {
+            out.write(text);
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': out.write("&amp;"); break;
+                case '<': out.write("&lt;"); break;
+                case '>': out.write("&gt;"); break;
+                case '"': out.write("&quot;"); break;
+                default: out.write(c);
+            }
+        }
+    }
+
+    // 单词通常不含需要转义的字符，整体写出
+    private static boolean needsEscape(String text, String special) {
+        for (int i = 0; i < text.length(); i++) {
+            if (special.indexOf(text.charAt(i)) >= 0) return true;
+        }
+        return false;
+    }
+
+    // 路径上的节点和边：边按起点分组，只有起点在路径上的边才需要进一步查找
+    private static final class Highlight {
+        final Set<String> nodes = new HashSet<>();
+        final Map<String, Set<String>> edges = new HashMap<>();
+
+        Highlight(List<Node> path) {
+            for (int i = 0; i < path.size(); i++) {
+                nodes.add(path.get(i).getWord());
+                if (i + 1 < path.size()) {
+                    edges.computeIfAbsent(path.get(i).getWord(), k -> new HashSet<>())
+                            .add(path.get(i + 1).getWord());
+                }
+            }
+        }
+
+        boolean containsEdge(String source, String target) {
+            Set<String> targets = edges.get(source);
+            return targets != null && targets.contains(target);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.texttograph;
+
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+// 纯Java渲染器：ForceLayout计算布局，用Java2D画到BufferedImage上，再用ImageIO保存为PNG。
+// 不启动外部进程，也不依赖显示设备，无头环境下同样可用。样式与DOT导出保持一致：
+// 普通图的边标签为蓝色权重；有高亮路径时路径节点为红框、路径边为蓝色粗线，其余边为灰色，
+// 标题写在左上角。节点很多时省略标签、箭头和边权，只画点和线
+public class GraphRenderer implements RenderService.Renderer {
+    static final int MAX_SIDE = 6000;                   // 图片边长上限，约144MB
+    private static final double PIXELS_PER_UNIT = 90;   // 布局中的理想边长对应的像素数
+    // 大图减少布局轮数：总计算量约为 节点数 × 轮数
+    private static final long LAYOUT_BUDGET = 2_000_000;
+    private static final int MIN_ITERATIONS = 60;
+    private static final int MARGIN = 40;
+    private static final double ARROW_SIZE = 8;
+    private static final int LABEL_MAX_NODES = 5000;
+    private static final int ARROW_MAX_EDGES = 20000;
+    private static final int WEIGHT_LABEL_MAX_EDGES = 3000;
+    private static final int ANTIALIAS_MAX_EDGES = 200000;
+    private static final Color PATH_FILL = new Color(0xFF, 0xF3, 0xE0);
+
+    private final int iterations;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public GraphRenderer() {
+        this(ForceLayout.DEFAULT_ITERATIONS, 42, ForkJoinPool.commonPool());
+    }
+
+    GraphRenderer(int iterations, long seed, ForkJoinPool pool) {
+        this.iterations = iterations;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    @Override
+    public void render(RenderService.Request request, Path png) throws IOException, InterruptedException {
+        BufferedImage image = draw(request.nodes, request.edges, request.path, request.title);
+        if (Thread.interrupted()) throw new InterruptedException();
+        if (!ImageIO.write(image, "png", png.toFile())) {
+            throw new IOException("没有可用的PNG编码器");
+        }
+    }
+
+    // path为null时按普通样式绘制，否则高亮路径并以title为标题
+    public BufferedImage draw(Collection<Node> nodes, List<Edge> edges, List<Node> path, String title) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (Node node : nodes) {
+            ids.putIfAbsent(node.getWord(), ids.size());
+        }
+        int[] sources = new int[edges.size()];
+        int[] targets = new int[edges.size()];
+        int[] weights = new int[edges.size()];
+        for (int e = 0; e < sources.length; e++) {
+            Edge edge = edges.get(e);
+            sources[e] = ids.computeIfAbsent(edge.getSource().getWord(), k -> ids.size());
+            targets[e] = ids.computeIfAbsent(edge.getTarget().getWord(), k -> ids.size());
+            weights[e] = edge.getWeight();
+        }
+        int n = ids.size();
+        String[] words = new String[n];
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            words[entry.getValue()] = entry.getKey();
+        }
+        int rounds = (int) Math.min(iterations, Math.max(MIN_ITERATIONS, LAYOUT_BUDGET / Math.max(1, n)));
+        double[][] position = new ForceLayout(n, sources, targets, weights).layout(rounds, seed, pool);
+
+        Set<Integer> pathNodes = new HashSet<>();
+        Set<Long> pathEdges = new HashSet<>();
+        if (path != null) {
+            for (int i = 0; i < path.size(); i++) {
+                Integer u = ids.get(path.get(i).getWord());
+                if (u != null) pathNodes.add(u);
+                Integer v = i + 1 < path.size() ? ids.get(path.get(i + 1).getWord()) : null;
+                if (u != null && v != null) pathEdges.add((long) u * n + v);
+            }
+        }
+
+        boolean labels = n <= LABEL_MAX_NODES;
+        String[] titleLines = path != null && title != null ? title.split("\n") : new String[0];
+        Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+        Font small = font.deriveFont(10f);
+        Font titleFont = font.deriveFont(16f);
+
+        // 节点为椭圆（有标签时按文字宽度）或小圆点
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D measure = probe.createGraphics();
+        FontMetrics metrics = measure.getFontMetrics(font);
+        double[] radiusX = new double[n];
+        double[] radiusY = new double[n];
+        for (int v = 0; v < n; v++) {
+            radiusX[v] = labels ? metrics.stringWidth(words[v]) / 2.0 + 8 : 3;
+            radiusY[v] = labels ? 12 : 3;
+        }
+        int titleHeight = titleLines.length == 0 ? 0 : titleLines.length * 20 + 10;
+        int titleWidth = 0;
+        FontMetrics titleMetrics = measure.getFontMetrics(titleFont);
+        for (String line : titleLines) {
+            titleWidth = Math.max(titleWidth, titleMetrics.stringWidth(line));
+        }
+        measure.dispose();
+
+        // 布局坐标缩放到像素，图片不超过MAX_SIDE
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            minX = Math.min(minX, position[0][v]);
+            maxX = Math.max(maxX, position[0][v]);
+            minY = Math.min(minY, position[1][v]);
+            maxY = Math.max(maxY, position[1][v]);
+        }
+        if (n == 0) {
+            minX = maxX = minY = maxY = 0;
+        }
+        double padding = MARGIN + (labels ? 60 : 3);
+        double scale = PIXELS_PER_UNIT;
+        double span = Math.max(maxX - minX, maxY - minY);
+        if (span * scale + 2 * padding + titleHeight > MAX_SIDE) {
+            scale = Math.max(1e-9, (MAX_SIDE - 2 * padding - titleHeight) / Math.max(span, 1e-9));
+        }
+        int width = (int) Math.min(MAX_SIDE, Math.max((maxX - minX) * scale + 2 * padding, titleWidth + 2 * MARGIN));
+        int height = (int) Math.min(MAX_SIDE, (maxY - minY) * scale + 2 * padding + titleHeight);
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int v = 0; v < n; v++) {
+            px[v] = (position[0][v] - minX) * scale + padding;
+            py[v] = (position[1][v] - minY) * scale + padding + titleHeight;
+        }
+
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            if (edges.size() <= ANTIALIAS_MAX_EDGES) {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            }
+            boolean arrows = edges.size() <= ARROW_MAX_EDGES;
+            boolean weightLabels = labels && edges.size() <= WEIGHT_LABEL_MAX_EDGES;
+            Color edgeColor = path == null ? Color.BLACK : Color.GRAY;
+            if (!labels) edgeColor = new Color(edgeColor.getRed(), edgeColor.getGreen(), edgeColor.getBlue(), 96);
+
+            // 先画普通边，再画路径边，保证路径在最上层
+            for (int pass = 0; pass < 2; pass++) {
+                for (int e = 0; e < sources.length; e++) {
+                    boolean onPath = pathEdges.contains((long) sources[e] * n + targets[e]);
+                    if (onPath != (pass == 1)) continue;
+                    g.setColor(onPath ? Color.BLUE : edgeColor);
+                    g.setStroke(new BasicStroke(onPath ? 3f
+                            : (float) Math.min(4, 1 + 0.5 * Math.log(Math.max(1, weights[e])))));
+                    drawEdge(g, sources[e], targets[e], px, py, radiusX, radiusY, arrows);
+                }
+            }
+            if (weightLabels) {
+                g.setFont(small);
+                g.setColor(Color.BLUE);
+                for (int e = 0; e < sources.length; e++) {
+                    int u = sources[e];
+                    int v = targets[e];
+                    double lx = u == v ? px[u] : (px[u] + px[v]) / 2;
+                    double ly = u == v ? py[u] - radiusY[u] - 18 : (py[u] + py[v]) / 2;
+                    g.drawString(weights[e] + ".0", (float) lx + 3, (float) ly - 3);
+                }
+            }
+
+            g.setFont(font);
+            FontMetrics fm = g.getFontMetrics();
+            for (int v = 0; v < n; v++) {
+                boolean onPath = pathNodes.contains(v);
+                Ellipse2D shape = new Ellipse2D.Double(px[v] - radiusX[v], py[v] - radiusY[v],
+                        2 * radiusX[v], 2 * radiusY[v]);
+                g.setColor(onPath ? PATH_FILL : labels ? Color.WHITE : Color.DARK_GRAY);
+                g.fill(shape);
+                if (labels || onPath) {
+                    g.setColor(onPath ? Color.RED : Color.BLACK);
+                    g.setStroke(new BasicStroke(onPath ? 3f : 1f));
+                    g.draw(shape);
+                }
+                if (labels) {
+                    g.setColor(Color.BLACK);
+                    g.drawString(words[v], (float) (px[v] - fm.stringWidth(words[v]) / 2.0),
+                            (float) (py[v] + fm.getAscent() / 2.0 - 1));
+                }
+            }
+
+            g.setFont(titleFont);
+            g.setColor(Color.BLACK);
+            for (int i = 0; i < titleLines.length; i++) {
+                g.drawString(titleLines[i], MARGIN / 2f, MARGIN / 2f + 16 + 20 * i);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // 从起点画到终点椭圆的边界，终点处画箭头；自环画成节点上方的小圆
+    private static void drawEdge(Graphics2D g, int u, int v, double[] px, double[] py,
+                                 double[] radiusX, double[] radiusY, boolean arrow) {
+        if (u == v) {
+            g.draw(new Ellipse2D.Double(px[u] - 8, py[u] - radiusY[u] - 14, 16, 16));
+            return;
+        }
+        double ex = px[v] - px[u];
+        double ey = py[v] - py[u];
+        double length = Math.sqrt(ex * ex + ey * ey);
+        if (length < 1e-9) return;
+        double ux = ex / length;
+        double uy = ey / length;
+        double end = boundary(ux, uy, radiusX[v], radiusY[v]);
+        double start = boundary(ux, uy, radiusX[u], radiusY[u]);
+        if (start + end >= length) return;   // 两个节点重叠
+        double x1 = px[u] + ux * start;
+        double y1 = py[u] + uy * start;
+        double x2 = px[v] - ux * end;
+        double y2 = py[v] - uy * end;
+        g.draw(new Line2D.Double(x1, y1, x2, y2));
+        if (arrow) {
+            double size = ARROW_SIZE;
+            Path2D head = new Path2D.Double();
+            head.moveTo(x2, y2);
+            head.lineTo(x2 - ux * size - uy * size / 2, y2 - uy * size + ux * size / 2);
+            head.lineTo(x2 - ux * size + uy * size / 2, y2 - uy * size - ux * size / 2);
+            head.closePath();
+            g.fill(head);
+        }
+    }
+
+    // 椭圆中心沿单位方向(ux, uy)到边界的距离
+    private static double boundary(double ux, double uy, double a, double b) {
+        return 1 / Math.sqrt((ux / a) * (ux / a) + (uy / b) * (uy / b));
+    }
+}
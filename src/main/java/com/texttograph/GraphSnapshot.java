@@ -0,0 +1,290 @@
+package com.texttograph;
+
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 冻结的只读图快照：单词与整数ID一一对应，出边和入边都以CSR数组存储。
+// 查询算法都在快照上运行，不再依赖Node/Edge对象和HashMap
+public class GraphSnapshot {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Node[] nodes;                  // ID -> 节点
+    private final Map<String, Integer> ids;      // 单词 -> ID，可能与GraphBuilder共用，其中ID不小于size()的是之后加入的单词
+    // 出边CSR：顶点v的出边位于 [offsets[v], offsets[v+1])，保持边的插入顺序
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+    // 入边CSR（反向图）：顶点v的入边位于 [inOffsets[v], inOffsets[v+1])
+    final int[] inOffsets;
+    final int[] inSources;
+    final int[] inWeights;
+    final int[] termFrequency;                   // 词频
+    // 按需构建：每个顶点的出边目标升序排列，用于hasEdge的二分查找；别名表用于按权重游走
+    private volatile int[] sortedTargets;
+    private volatile AliasTables aliasTables;
+    private volatile BridgeIndex bridgeIndex;
+
+    private GraphSnapshot(Node[] nodes, Map<String, Integer> ids,
+                          int[] offsets, int[] targets, int[] weights,
+                          int[] inOffsets, int[] inSources, int[] inWeights,
+                          int[] termFrequency) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.inWeights = inWeights;
+        this.termFrequency = termFrequency;
+    }
+
+    // 节点ID按nodes的迭代顺序分配，同一起点的边按edges中的顺序排列
+    public static GraphSnapshot of(Collection<Node> nodeSet, List<Edge> edges, Map<Node, Integer> termFrequencyMap) {
+        int n = nodeSet.size();
+        List<Node> nodes = new ArrayList<>(nodeSet);
+        Map<String, Integer> ids = new HashMap<>(n * 2);
+        int[] termFrequency = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids.put(nodes.get(i).getWord(), i);
+            if (termFrequencyMap != null) {
+                termFrequency[i] = termFrequencyMap.getOrDefault(nodes.get(i), 0);
+            }
+        }
+        return of(nodes, ids, edges, termFrequency);
+    }
+
+    // ids须包含nodes中的全部单词（ID即下标），可以是之后还会追加单词的并发安全的表
+    static GraphSnapshot of(List<Node> nodeList, Map<String, Integer> ids, List<Edge> edges, int[] termFrequency) {
+        int n = nodeList.size();
+        Node[] nodes = nodeList.toArray(new Node[0]);
+        int m = edges.size();
+        int[] sources = new int[m];
+        int[] edgeTargets = new int[m];
+        int[] offsets = new int[n + 1];
+        int[] inOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            Edge edge = edges.get(e);
+            sources[e] = ids.get(edge.getSource().getWord());
+            edgeTargets[e] = ids.get(edge.getTarget().getWord());
+            offsets[sources[e] + 1]++;
+            inOffsets[edgeTargets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+            inOffsets[v + 1] += inOffsets[v];
+        }
+
+        // 稳定的计数排序，保持原边顺序
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] inSources = new int[m];
+        int[] inWeights = new int[m];
+        int[] outFill = Arrays.copyOf(offsets, n);
+        int[] inFill = Arrays.copyOf(inOffsets, n);
+        for (int e = 0; e < m; e++) {
+            int weight = edges.get(e).getWeight();
+            int out = outFill[sources[e]]++;
+            targets[out] = edgeTargets[e];
+            weights[out] = weight;
+            int in = inFill[edgeTargets[e]]++;
+            inSources[in] = sources[e];
+            inWeights[in] = weight;
+        }
+        return new GraphSnapshot(nodes, ids, offsets, targets, weights,
+                inOffsets, inSources, inWeights, termFrequency);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    // 单词对应的ID，不存在时返回-1
+    public int id(String word) {
+        Integer id = ids.get(word);
+        return id == null || id >= nodes.length ? -1 : id;
+    }
+
+    public Node node(int id) {
+        return nodes[id];
+    }
+
+    public String word(int id) {
+        return nodes[id].getWord();
+    }
+
+    public int outDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    public int inDegree(int v) {
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    // 是否存在边 u -> v，在u的有序出边中二分查找
+    public boolean hasEdge(int u, int v) {
+        int[] sorted = sortedTargets;
+        if (sorted == null) {
+            sorted = targets.clone();
+            for (int w = 0; w < size(); w++) {
+                Arrays.sort(sorted, offsets[w], offsets[w + 1]);
+            }
+            sortedTargets = sorted;
+        }
+        return Arrays.binarySearch(sorted, offsets[u], offsets[u + 1], v) >= 0;
+    }
+
+    AliasTables aliasTables() {
+        AliasTables tables = aliasTables;
+        if (tables == null) {
+            synchronized (this) {
+                tables = aliasTables;
+                if (tables == null) {
+                    tables = new AliasTables(this, AliasTables.DEFAULT_MAX_ENTRIES);
+                    aliasTables = tables;
+                }
+            }
+        }
+        return tables;
+    }
+
+    BridgeIndex bridgeIndex() {
+        BridgeIndex index = bridgeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = bridgeIndex;
+                if (index == null) {
+                    index = new BridgeIndex(this);
+                    bridgeIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // 图内容指纹（单词顺序、边和权重），用于校验保存在磁盘上的索引是否属于当前图
+    public long fingerprint() {
+        long hash = 1125899906842597L;
+        for (Node node : nodes) {
+            hash = 31 * hash + node.getWord().hashCode();
+        }
+        for (int[] array : new int[][]{offsets, targets, weights}) {
+            for (int value : array) {
+                hash = 31 * hash + value;
+            }
+        }
+        return hash;
+    }
+
+    //单源最短路径，不可达的顶点距离为UNREACHABLE
+    public int[] dijkstra(int source) {
+        return ShortestPathTree.dijkstra(this, source).dist;
+    }
+
+    // 桥接词：word1 -> bridge -> word2，返回结果按word1出边顺序排列
+    public List<String> bridges(int word1, int word2) {
+        return words(bridgeIndex().bridges(word1, word2));
+    }
+
+    // 批量查询第i对 (first[i], second[i]) 的桥接词，并行计算
+    public List<List<String>> bridges(int[] first, int[] second) {
+        int[][] ids = bridgeIndex().bridges(first, second);
+        List<List<String>> result = new ArrayList<>(ids.length);
+        for (int[] bridges : ids) {
+            result.add(words(bridges));
+        }
+        return result;
+    }
+
+    private List<String> words(int[] ids) {
+        List<String> words = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            words.add(word(id));
+        }
+        return words;
+    }
+
+    //PageRank计算，使用TF-IDF进行初始化，在公共fork-join池上并行
+    public GraphBuilder.PageRankResult pageRank(double dampingFactor, double epsilon, int maxIter) {
+        return pageRank(dampingFactor, epsilon, maxIter, ForkJoinPool.commonPool());
+    }
+
+    public GraphBuilder.PageRankResult pageRank(double dampingFactor, double epsilon, int maxIter,
+                                                ForkJoinPool pool) {
+        return ParallelPageRank.compute(this, dampingFactor, epsilon, maxIter, pool);
+    }
+
+    //随机游走：均匀选择出边，遇到重复边或无出边时停止
+    public GraphBuilder.RandomWalkResult randomWalk() {
+        if (size() == 0) return new GraphBuilder.RandomWalkResult(Collections.emptyList(), "空图", 0);
+
+        List<Node> path = new ArrayList<>();
+        BitSet visitedEdges = new BitSet(edgeCount());
+        int totalWeight = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int current = random.nextInt(size());
+        path.add(nodes[current]);
+        while (true) {
+            int degree = outDegree(current);
+            if (degree == 0) break;
+
+            int chosen = offsets[current] + random.nextInt(degree);
+            if (visitedEdges.get(chosen)) {
+                path.add(nodes[targets[chosen]]);
+                return new GraphBuilder.RandomWalkResult(
+                        path,
+                        "发现重复边: " + nodes[current] + "→" + nodes[targets[chosen]],
+                        totalWeight);
+            }
+
+            totalWeight += weights[chosen];
+            visitedEdges.set(chosen);
+            current = targets[chosen];
+            path.add(nodes[current]);
+        }
+        return new GraphBuilder.RandomWalkResult(path, "无出边终止", totalWeight);
+    }
+
+    // 带偏置的随机游走：weighted为true时按边权（二元组计数）选择出边，p、q为node2vec的返回与出入参数，
+    // p = q = 1 时为一阶游走；停止规则与randomWalk相同
+    public GraphBuilder.RandomWalkResult randomWalk(boolean weighted, double p, double q) {
+        WalkSampler sampler = new WalkSampler(this, weighted, p, q);
+        if (size() == 0) return new GraphBuilder.RandomWalkResult(Collections.emptyList(), "空图", 0);
+
+        List<Node> path = new ArrayList<>();
+        BitSet visitedEdges = new BitSet(edgeCount());
+        int totalWeight = 0;
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+
+        int previous = -1;
+        int current = random.nextInt(size());
+        path.add(nodes[current]);
+        while (true) {
+            int chosen = sampler.next(previous, current, random);
+            if (chosen < 0) break;
+            if (visitedEdges.get(chosen)) {
+                path.add(nodes[targets[chosen]]);
+                return new GraphBuilder.RandomWalkResult(
+                        path,
+                        "发现重复边: " + nodes[current] + "→" + nodes[targets[chosen]],
+                        totalWeight);
+            }
+
+            totalWeight += weights[chosen];
+            visitedEdges.set(chosen);
+            previous = current;
+            current = targets[chosen];
+            path.add(nodes[current]);
+        }
+        return new GraphBuilder.RandomWalkResult(path, "无出边终止", totalWeight);
+    }
+}
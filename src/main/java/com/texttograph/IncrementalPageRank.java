@@ -0,0 +1,147 @@
+package com.texttograph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+// 基于残差推送的增量PageRank。PageRank满足
+//   x[v] = c + d * sum(x[u] / outDegree(u), u -> v)，  c = (1 - d) / n + d * 悬挂节点总和 / n
+// 图只追加节点和边时，只有新边的起点出度变化：它的出邻居的入边之和、它自己是否悬挂随之变化，
+// 其余节点的残差只相差c的变化量。于是只需在这些“脏”节点上精确计算残差并沿出边推送；
+// 所有节点共有的均匀残差U最后一次性吸收：(I - dM)^-1 * U = U * n / (1 - d) * PageRank向量，
+// 即把当前值整体放大 1 + U * n / ((1 - d) * sum(x))，只改RankVector的缩放因子。
+// 残差、脏节点集合和改写都是稀疏的，一次更新的代价与被推送的节点数有关，与n无关
+final class IncrementalPageRank {
+    private static final int DENSE_FRACTION = 4;   // 残差扩散到超过1/4的节点时改用完整迭代
+    private static final int MAX_LAYERS = 16;      // RankVector叠加层数上限，超过后合并
+    private static final int COMPACT_FRACTION = 8; // 各层改写总数超过1/8的节点时合并
+
+    private IncrementalPageRank() {
+    }
+
+    static GraphBuilder.PageRankResult update(GraphBuilder.PageRankResult previous, GraphSnapshot graph,
+                                              int[] changedSources, double epsilon, int maxIter,
+                                              ForkJoinPool pool) {
+        final GraphSnapshot old = previous.graph;
+        final int oldN = old.size();
+        final int n = graph.size();
+        final double d = previous.dampingFactor;
+        final RankVector ranks = previous.ranks;
+        double scale = ranks.scale;                  // 真实值 = 未缩放值 * scale
+        double rankSum = previous.rankSum;
+        double danglingSum = previous.danglingSum;
+        // 本次改写的未缩放值；新节点在旧向量中不存在，从0开始
+        PersonalizedPageRank.SparseVector written = new PersonalizedPageRank.SparseVector();
+
+        // 1. 标记脏节点：出度变化的节点、它们的出邻居，以及新节点。残差表的键就是残差的支撑集
+        PersonalizedPageRank.SparseVector residual = new PersonalizedPageRank.SparseVector();
+        PersonalizedPageRank.SparseVector sources = new PersonalizedPageRank.SparseVector();
+        int[] support = new int[16];
+        int supportSize = 0;
+        for (int u : changedSources) {
+            if (sources.contains(u)) continue;
+            sources.set(u, 1);
+            if (u < oldN && old.outDegree(u) == 0) {
+                danglingSum -= ranks.raw(u) * scale;   // 有了出边，不再是悬挂节点
+            }
+            if (!residual.contains(u)) {
+                residual.set(u, 0);
+                if (supportSize == support.length) support = Arrays.copyOf(support, supportSize * 2);
+                support[supportSize++] = u;
+            }
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int w = graph.targets[e];
+                if (residual.contains(w)) continue;
+                residual.set(w, 0);
+                if (supportSize == support.length) support = Arrays.copyOf(support, supportSize * 2);
+                support[supportSize++] = w;
+            }
+        }
+        for (int v = oldN; v < n; v++) {
+            if (residual.contains(v)) continue;
+            residual.set(v, 0);
+            if (supportSize == support.length) support = Arrays.copyOf(support, supportSize * 2);
+            support[supportSize++] = v;
+        }
+
+        // 2. 脏节点的残差精确计算，扣除均匀部分；其余节点的残差就是均匀部分
+        double oldConst = (1 - d) / oldN + d * previous.danglingSum / oldN;
+        double uniform = (1 - d) / n + d * danglingSum / n - oldConst;
+        double mass = 0;                                               // 残差的L1范数
+        for (int i = 0; i < supportSize; i++) {
+            int v = support[i];
+            double incomingSum = 0;
+            for (int e = graph.inOffsets[v]; e < graph.inOffsets[v + 1]; e++) {
+                int u = graph.inSources[e];
+                incomingSum += ranks.raw(u) * scale / graph.outDegree(u);
+            }
+            double r = (1 - d) / n + d * danglingSum / n + d * incomingSum - ranks.raw(v) * scale - uniform;
+            residual.set(v, r);
+            mass += Math.abs(r);
+        }
+
+        // 3. 按轮推送，直到残差总量落入预算：每轮推送超过阈值的节点，阈值保证全部低于阈值时
+        //    残差总量一定在预算内。残差扩散到大部分节点时，改为热启动的完整迭代更省
+        final double budget = epsilon - previous.residual;
+        int rounds = 0;
+        while (mass >= budget && rounds < maxIter && supportSize <= n / DENSE_FRACTION) {
+            rounds++;
+            double threshold = budget * (1 - d) / supportSize;
+            int scanned = supportSize;
+            for (int i = 0; i < scanned; i++) {
+                int v = support[i];
+                double delta = residual.get(v);
+                if (Math.abs(delta) <= threshold) continue;
+                residual.set(v, 0);
+                mass -= Math.abs(delta);
+                double before = written.contains(v) ? written.get(v) : ranks.raw(v);
+                written.set(v, before + delta / scale);
+                rankSum += delta;
+                int degree = graph.outDegree(v);
+                if (degree == 0) {
+                    // 悬挂节点的变化均匀地分给所有节点
+                    danglingSum += delta;
+                    uniform += d * delta / n;
+                    continue;
+                }
+                double share = d * delta / degree;
+                for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                    int w = graph.targets[e];
+                    if (!residual.contains(w)) {
+                        if (supportSize == support.length) support = Arrays.copyOf(support, supportSize * 2);
+                        support[supportSize++] = w;
+                    }
+                    double r = residual.get(w);
+                    residual.set(w, r + share);
+                    mass += Math.abs(r + share) - Math.abs(r);
+                }
+            }
+        }
+
+        // 4. 吸收均匀残差：只改缩放因子。吸收时用当前值代替真实的PageRank方向，当前值的L1误差
+        //    至多为残差/(1-d)，归一化后方向误差至多翻倍，吸收量的误差再经(I - dM)至多放大一倍
+        double absorptionError = 0;
+        if (uniform != 0) {
+            double factor = 1 + uniform * n / ((1 - d) * rankSum);
+            scale *= factor;
+            danglingSum *= factor;
+            rankSum *= factor;
+            absorptionError = 4 * Math.abs(uniform) * n * (previous.residual + mass)
+                    / ((1 - d) * (1 - d) * rankSum);
+        }
+        double bound = previous.residual + mass + absorptionError;
+        RankVector next = ranks.overlay(written, scale);
+
+        // 5. 残差仍超出预算时，从当前值热启动完整迭代；收敛阈值减半，为之后的增量更新留出预算
+        if (mass >= budget || bound >= epsilon) {
+            return ParallelPageRank.warmStart(graph, next.toArray(n), d, epsilon / 2, maxIter, pool);
+        }
+        // 叠加层过多或改写过多时合并成完整数组，避免查询变慢；合并会重写全部节点
+        int touchedNodes = written.size();
+        if (next.depth > MAX_LAYERS || next.changedEntries > n / COMPACT_FRACTION) {
+            next = new RankVector(next.toArray(n));
+            touchedNodes = n;
+        }
+        return new GraphBuilder.PageRankResult(new ParallelPageRank.RankMap(graph, next), rounds,
+                touchedNodes, graph, next, d, danglingSum, rankSum, bound);
+    }
+}
@@ -0,0 +1,94 @@
+package com.texttograph;
+
+import java.util.Arrays;
+
+// 带位置索引的二叉最小堆：元素为顶点ID，按整数键排序，键相同时ID小的优先。
+// 支持decrease-key，堆中不会出现过期元素，大小不超过顶点数
+final class IndexedMinHeap {
+    private final int[] heap;       // 堆数组，存放顶点ID
+    private final int[] position;   // 顶点在堆中的下标，不在堆中为-1
+    private final int[] keys;       // 顶点当前的键
+    private int size;
+
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int v) {
+        return position[v] >= 0;
+    }
+
+    // 堆顶元素的键，堆为空时返回Integer.MAX_VALUE
+    int peekKey() {
+        return size == 0 ? Integer.MAX_VALUE : keys[heap[0]];
+    }
+
+    int poll() {
+        int top = heap[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // 插入顶点，或在新键更小时降低它的键
+    void insertOrDecrease(int v, int key) {
+        int i = position[v];
+        if (i < 0) {
+            i = size++;
+            heap[i] = v;
+            position[v] = i;
+        } else if (key >= keys[v]) {
+            return;
+        }
+        keys[v] = key;
+        siftUp(i);
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(v, heap[parent])) break;
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], v)) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
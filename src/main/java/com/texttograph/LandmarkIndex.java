@@ -0,0 +1,302 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// ALT（A* + Landmarks + 三角不等式）距离索引：选出K个地标单词，预先计算每个地标到所有顶点的距离
+// d(L, v) 和所有顶点到地标的距离 d(v, L)。由三角不等式可得
+//   d(v, t) >= d(L, t) - d(L, v)  以及  d(v, t) >= d(v, L) - d(t, L)
+// 作为A*的下界启发函数；d(s, L) + d(L, t) 则是不需要搜索的上界
+public class LandmarkIndex {
+    private static final int MAGIC = 0x414C5431;   // "ALT1"
+
+    // 地标选择策略：按度数选择，或每次选择离已选地标最远的顶点
+    public enum Selection {
+        DEGREE,
+        FARTHEST
+    }
+
+    // 不经过搜索得到的距离区间，不可达时两者均为GraphSnapshot.UNREACHABLE
+    public static class Bounds {
+        public final int lower;
+        public final int upper;
+
+        Bounds(int lower, int upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+    }
+
+    private final GraphSnapshot graph;
+    private final int[] landmarks;
+    private final int[][] fromLandmark;   // fromLandmark[i][v] = d(L_i, v)
+    private final int[][] toLandmark;     // toLandmark[i][v] = d(v, L_i)
+
+    private LandmarkIndex(GraphSnapshot graph, int[] landmarks, int[][] fromLandmark, int[][] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    public static LandmarkIndex build(GraphSnapshot graph, int count, Selection selection) {
+        int k = Math.min(count, graph.size());
+        int[] landmarks = new int[k];
+        int[][] from = new int[k][];
+        int[][] to = new int[k][];
+        if (selection == Selection.DEGREE) {
+            Integer[] order = new Integer[graph.size()];
+            for (int v = 0; v < order.length; v++) order[v] = v;
+            Arrays.sort(order, (a, b) -> Integer.compare(degree(graph, b), degree(graph, a)));
+            for (int i = 0; i < k; i++) landmarks[i] = order[i];
+            // 2K次Dijkstra彼此独立，全部并行
+            IntStream.range(0, 2 * k).parallel().forEach(task -> {
+                int i = task / 2;
+                if (task % 2 == 0) {
+                    from[i] = forwardDistances(graph, landmarks[i]);
+                } else {
+                    to[i] = backwardDistances(graph, landmarks[i]);
+                }
+            });
+        } else {
+            // 最远点选择：第一个地标取度数最大的顶点，之后每次取到已选地标往返距离之和最小值最大的顶点，
+            // 不可达的顶点视为无穷远；每个地标的正反两次Dijkstra并行执行
+            long[] closeness = new long[graph.size()];
+            Arrays.fill(closeness, Long.MAX_VALUE);
+            for (int i = 0; i < k; i++) {
+                int next = -1;
+                for (int v = 0; v < graph.size(); v++) {
+                    if (next < 0 || closeness[v] > closeness[next]
+                            || (closeness[v] == closeness[next] && degree(graph, v) > degree(graph, next))) {
+                        next = v;
+                    }
+                }
+                landmarks[i] = next;
+                final int index = i;
+                final int landmark = next;
+                IntStream.range(0, 2).parallel().forEach(task -> {
+                    if (task == 0) {
+                        from[index] = forwardDistances(graph, landmark);
+                    } else {
+                        to[index] = backwardDistances(graph, landmark);
+                    }
+                });
+                for (int v = 0; v < graph.size(); v++) {
+                    long roundTrip = from[i][v] == GraphSnapshot.UNREACHABLE || to[i][v] == GraphSnapshot.UNREACHABLE
+                            ? Long.MAX_VALUE - 1 : (long) from[i][v] + to[i][v];
+                    closeness[v] = Math.min(closeness[v], roundTrip);
+                }
+                closeness[next] = -1;   // 已选为地标
+            }
+        }
+        return new LandmarkIndex(graph, landmarks, from, to);
+    }
+
+    private static int degree(GraphSnapshot graph, int v) {
+        return graph.outDegree(v) + graph.inDegree(v);
+    }
+
+    static int[] forwardDistances(GraphSnapshot graph, int source) {
+        return distances(graph.size(), graph.offsets, graph.targets, graph.weights, source);
+    }
+
+    // 在反向图上运行Dijkstra，得到所有顶点到target的距离
+    static int[] backwardDistances(GraphSnapshot graph, int target) {
+        return distances(graph.size(), graph.inOffsets, graph.inSources, graph.inWeights, target);
+    }
+
+    private static int[] distances(int n, int[] offsets, int[] adjacent, int[] weights, int source) {
+        int[] dist = new int[n];
+        Arrays.fill(dist, GraphSnapshot.UNREACHABLE);
+        dist[source] = 0;
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        heap.insertOrDecrease(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int newDist = dist[u] + weights[e];
+                if (newDist < dist[adjacent[e]]) {
+                    dist[adjacent[e]] = newDist;
+                    heap.insertOrDecrease(adjacent[e], newDist);
+                }
+            }
+        }
+        return dist;
+    }
+
+    public GraphSnapshot graph() {
+        return graph;
+    }
+
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    public List<String> landmarkWords() {
+        String[] words = new String[landmarks.length];
+        for (int i = 0; i < landmarks.length; i++) words[i] = graph.word(landmarks[i]);
+        return Arrays.asList(words);
+    }
+
+    // 索引占用的字节数
+    public long sizeInBytes() {
+        return 4L * landmarks.length * (1 + 2L * graph.size());
+    }
+
+    // d(v, t) 的下界；能证明不可达时返回UNREACHABLE
+    public int lowerBound(int v, int t) {
+        int bound = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            int lv = fromLandmark[i][v];
+            int lt = fromLandmark[i][t];
+            if (lv != GraphSnapshot.UNREACHABLE) {
+                // L能到v却到不了t，说明v也到不了t
+                if (lt == GraphSnapshot.UNREACHABLE) return GraphSnapshot.UNREACHABLE;
+                bound = Math.max(bound, lt - lv);
+            }
+            int vl = toLandmark[i][v];
+            int tl = toLandmark[i][t];
+            if (tl != GraphSnapshot.UNREACHABLE) {
+                // t能到L而v到不了L，说明v到不了t
+                if (vl == GraphSnapshot.UNREACHABLE) return GraphSnapshot.UNREACHABLE;
+                bound = Math.max(bound, vl - tl);
+            }
+        }
+        return bound;
+    }
+
+    // d(s, t) 的上界：经过某个地标的最短绕行距离，没有地标可用时返回UNREACHABLE
+    public int upperBound(int s, int t) {
+        long bound = GraphSnapshot.UNREACHABLE;
+        for (int i = 0; i < landmarks.length; i++) {
+            if (toLandmark[i][s] != GraphSnapshot.UNREACHABLE && fromLandmark[i][t] != GraphSnapshot.UNREACHABLE) {
+                bound = Math.min(bound, (long) toLandmark[i][s] + fromLandmark[i][t]);
+            }
+        }
+        return (int) bound;
+    }
+
+    // 近似距离：只查表不搜索
+    public Bounds bounds(int s, int t) {
+        if (s == t) return new Bounds(0, 0);
+        int lower = lowerBound(s, t);
+        if (lower == GraphSnapshot.UNREACHABLE) return new Bounds(lower, lower);
+        return new Bounds(lower, upperBound(s, t));
+    }
+
+    // 以地标下界为启发函数的A*搜索；启发函数满足一致性，每个顶点最多出堆一次
+    public SearchResult search(int source, int target) {
+        int n = graph.size();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, GraphSnapshot.UNREACHABLE);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        int start = lowerBound(source, target);
+        if (start == GraphSnapshot.UNREACHABLE) {
+            return new SearchResult(GraphSnapshot.UNREACHABLE, Collections.<Node>emptyList(), 0);
+        }
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        heap.insertOrDecrease(source, start);
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled++;
+            if (u == target) break;
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int v = graph.targets[e];
+                int newDist = dist[u] + graph.weights[e];
+                if (newDist < dist[v]) {
+                    int h = lowerBound(v, target);
+                    if (h == GraphSnapshot.UNREACHABLE) continue;   // 从v无法到达终点，剪枝
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, newDist + h);
+                }
+            }
+        }
+        if (dist[target] == GraphSnapshot.UNREACHABLE) {
+            return new SearchResult(GraphSnapshot.UNREACHABLE, Collections.<Node>emptyList(), settled);
+        }
+        LinkedList<Node> path = new LinkedList<>();
+        for (int v = target; v >= 0; v = parent[v]) {
+            path.addFirst(graph.node(v));
+        }
+        return new SearchResult(dist[target], path, settled);
+    }
+
+    // 保存到文件：头部记录图指纹，加载时据此校验
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(20 + 4 * landmarks.length);
+            header.putInt(MAGIC).putLong(graph.fingerprint()).putInt(graph.size()).putInt(landmarks.length);
+            header.asIntBuffer().put(landmarks);
+            writeFully(channel, header);
+            ByteBuffer row = ByteBuffer.allocate(4 * graph.size());
+            for (int[][] table : new int[][][]{fromLandmark, toLandmark}) {
+                for (int[] distances : table) {
+                    row.clear();
+                    row.asIntBuffer().put(distances);
+                    writeFully(channel, row);
+                }
+            }
+        }
+    }
+
+    public static LandmarkIndex load(Path path, GraphSnapshot graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(20);
+            readFully(channel, header);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("不是地标索引文件: " + path);
+            }
+            if (header.getLong(4) != graph.fingerprint() || header.getInt(12) != graph.size()) {
+                throw new IOException("地标索引与当前图不匹配: " + path);
+            }
+            int k = header.getInt(16);
+            ByteBuffer ids = ByteBuffer.allocate(4 * k);
+            readFully(channel, ids);
+            int[] landmarks = new int[k];
+            ids.asIntBuffer().get(landmarks);
+            int[][] from = new int[k][graph.size()];
+            int[][] to = new int[k][graph.size()];
+            ByteBuffer row = ByteBuffer.allocate(4 * graph.size());
+            for (int[][] table : new int[][][]{from, to}) {
+                for (int[] distances : table) {
+                    readFully(channel, row);
+                    row.asIntBuffer().get(distances);
+                }
+            }
+            return new LandmarkIndex(graph, landmarks, from, to);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.rewind();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("地标索引文件不完整");
+            }
+        }
+        buffer.flip();
+    }
+}
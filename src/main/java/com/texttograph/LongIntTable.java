@@ -0,0 +1,84 @@
+package com.texttograph;
+
+import java.util.Arrays;
+
+// 开放寻址的 long -> int 哈希表（线性探测），值不能为负。
+// 边以 (srcId << 32) | dstId 为键，不为每条边创建装箱的键或拼接的字符串
+final class LongIntTable {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntTable() {
+        keys = new long[1024];
+        values = new int[1024];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+    }
+
+    static long key(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    // 不存在时返回-1
+    int get(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // 键已存在时返回已有的值，否则放入value并返回-1
+    int putIfAbsent(long key, int value) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        // 装载因子超过1/2时扩容
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[keys.length];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    // 64位哈希混合（MurmurHash3 finalizer），避免相邻ID聚集在一起
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,182 @@
+package com.texttograph;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// 马尔可夫链文本生成：图就是二元组计数构成的一阶马尔可夫链。从种子词出发，按（经温度调整的）边权
+// 用别名表O(1)地抽取下一个词；走到无出边的词时从种子词重新开始（种子词本身无出边时从随机词开始）。
+// 多个生成任务按批在fork-join池上并行，每个生成的SplittableRandom按顺序从根种子分裂，
+// 输出按顺序写出，与线程数无关。与generateNewText（在已有文本中插入桥接词）互不影响
+public class MarkovTextGenerator {
+    private static final int TOKENS_PER_TASK = 1 << 16;    // 每个并行任务大约生成的词数
+    private static final int STREAM_FLUSH_CHARS = 1 << 16;
+    private static final int TASKS_IN_FLIGHT_PER_THREAD = 2;
+
+    private final GraphSnapshot graph;
+    private final AliasTables tables;
+    private final long seed;
+    private final String[] words;
+
+    public MarkovTextGenerator(GraphSnapshot graph, double temperature, long seed) {
+        this.graph = graph;
+        this.tables = temperature == 1 ? graph.aliasTables()
+                : new AliasTables(graph, AliasTables.DEFAULT_MAX_ENTRIES, temperature);
+        this.seed = seed;
+        this.words = new String[graph.size()];
+        for (int v = 0; v < words.length; v++) {
+            words[v] = graph.word(v);
+        }
+    }
+
+    private MarkovTextGenerator(MarkovTextGenerator other, long seed) {
+        this.graph = other.graph;
+        this.tables = other.tables;
+        this.seed = seed;
+        this.words = other.words;
+    }
+
+    // 换一个种子，别名表和词表与原生成器共用
+    MarkovTextGenerator withSeed(long seed) {
+        return new MarkovTextGenerator(this, seed);
+    }
+
+    // 生成tokens个词（含种子词），以空格分隔
+    public String generate(String seedWord, int tokens) {
+        StringWriter out = new StringWriter();
+        try {
+            generate(seedWord, tokens, out);
+        } catch (IOException e) {
+            // StringWriter不会抛出IO异常
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // 单次生成，边生成边写出，适合很长的输出；返回写出的词数。writer由调用方关闭
+    public long generate(String seedWord, long tokens, Writer writer) throws IOException {
+        int start = seedId(seedWord);
+        StringBuilder buffer = new StringBuilder(STREAM_FLUSH_CHARS + 64);
+        Generation generation = new Generation(start, new SplittableRandom(seed));
+        for (long i = 0; i < tokens; i++) {
+            if (i > 0) buffer.append(' ');
+            buffer.append(words[generation.next()]);
+            if (buffer.length() >= STREAM_FLUSH_CHARS) {
+                writer.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        writer.append(buffer);
+        writer.flush();
+        return Math.max(0, tokens);
+    }
+
+    public long generate(List<String> seedWords, int tokensEach, Writer writer) throws IOException {
+        return generate(seedWords, tokensEach, writer, ForkJoinPool.commonPool());
+    }
+
+    // 对每个种子词各生成一行tokensEach个词，并行生成、按顺序写出；返回写出的词数
+    public long generate(List<String> seedWords, int tokensEach, Writer writer, ForkJoinPool pool)
+            throws IOException {
+        int[] starts = new int[seedWords.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = seedId(seedWords.get(i));
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        int perTask = Math.max(1, TOKENS_PER_TASK / Math.max(1, tokensEach));
+        int window = Math.max(1, pool.getParallelism() * TASKS_IN_FLIGHT_PER_THREAD);
+        long written = 0;
+        for (int next = 0; next < starts.length; ) {
+            List<Batch> batches = new ArrayList<>(window);
+            while (batches.size() < window && next < starts.length) {
+                int count = Math.min(perTask, starts.length - next);
+                SplittableRandom[] randoms = new SplittableRandom[count];
+                for (int i = 0; i < count; i++) {
+                    randoms[i] = root.split();
+                }
+                batches.add(new Batch(starts, next, count, tokensEach, randoms));
+                next += count;
+            }
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(batches);
+                    return null;
+                }
+            });
+            for (Batch batch : batches) {
+                writer.append(batch.join());
+                written += (long) batch.count * Math.max(0, tokensEach);
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    private int seedId(String seedWord) {
+        int id = graph.id(seedWord.toLowerCase());
+        if (id < 0) throw new IllegalArgumentException("单词不存在: " + seedWord);
+        return id;
+    }
+
+    // 一次生成的状态：当前词与随机数流
+    private final class Generation {
+        private final int start;
+        private final SplittableRandom random;
+        private int current = -1;
+
+        Generation(int start, SplittableRandom random) {
+            this.start = start;
+            this.random = random;
+        }
+
+        int next() {
+            if (current < 0) {
+                current = start;
+            } else if (graph.outDegree(current) == 0) {
+                // 无出边：重新开始
+                current = graph.outDegree(start) > 0 ? start : random.nextInt(graph.size());
+            } else {
+                current = graph.targets[tables.sample(current, random)];
+            }
+            return current;
+        }
+    }
+
+    private final class Batch extends RecursiveTask<StringBuilder> {
+        private final int[] starts;
+        private final int from;
+        final int count;
+        private final int tokens;
+        private final SplittableRandom[] randoms;
+
+        Batch(int[] starts, int from, int count, int tokens, SplittableRandom[] randoms) {
+            this.starts = starts;
+            this.from = from;
+            this.count = count;
+            this.tokens = tokens;
+            this.randoms = randoms;
+        }
+
+        @Override
+        protected StringBuilder compute() {
+            StringBuilder out = new StringBuilder();
+            for (int g = 0; g < count; g++) {
+                Generation generation = new Generation(starts[from + g], randoms[g]);
+                for (int i = 0; i < tokens; i++) {
+                    if (i > 0) out.append(' ');
+                    out.append(words[generation.next()]);
+                }
+                out.append('\n');
+            }
+            return out;
+        }
+    }
+}
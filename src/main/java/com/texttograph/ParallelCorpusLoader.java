@@ -0,0 +1,166 @@
+package com.texttograph;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// 并行导入大语料：内存映射文件，按单词边界切块，各块在fork-join池上独立分词计数，
+// 最后按块顺序合并，并补上跨越块边界的那一条边
+public class ParallelCorpusLoader {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;     // 1MB
+    private static final long MAX_CHUNK_SIZE = 256L << 20;   // 单次映射不超过256MB
+    private static final int CHUNKS_PER_THREAD = 4;          // 多切几块便于负载均衡
+
+    public static void load(GraphBuilder builder, Path path) throws IOException {
+        load(builder, path, ForkJoinPool.commonPool());
+    }
+
+    public static void load(GraphBuilder builder, Path path, ForkJoinPool pool) throws IOException {
+        long chunkSize = path.toFile().length() / ((long) pool.getParallelism() * CHUNKS_PER_THREAD);
+        load(builder, path, pool, Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, chunkSize)));
+    }
+
+    static void load(GraphBuilder builder, Path path, ForkJoinPool pool, long chunkSize) throws IOException {
+        load(builder, path, pool, chunkSize, Charset.defaultCharset());
+    }
+
+    // 按字节切词只在charset下与 buildGraph(Path) 的按字符切词一致时使用，否则退回流式构建
+    static void load(GraphBuilder builder, Path path, ForkJoinPool pool, long chunkSize, Charset charset)
+            throws IOException {
+        if (!isByteCompatible(charset)) {
+            try (Reader reader = new InputStreamReader(Files.newInputStream(path), charset)) {
+                builder.buildGraph(reader);
+            }
+            return;
+        }
+        List<EdgeCounter> chunks;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<ChunkTask> tasks = new ArrayList<>();
+            for (long start = 0; start < size; ) {
+                long end = findWordBoundary(channel, Math.min(size, start + chunkSize), size);
+                tasks.add(new ChunkTask(channel, start, end));
+                start = end;
+            }
+            chunks = runAll(pool, tasks);
+        }
+        merge(builder, chunks);
+    }
+
+    // 从position开始向后找到第一个非字母字节，保证单词不会被切成两半
+    private static long findWordBoundary(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (position < size) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (!isLetter(buffer.get(i))) {
+                    return position + i;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    private static List<EdgeCounter> runAll(ForkJoinPool pool, List<ChunkTask> tasks) throws IOException {
+        try {
+            return pool.submit(() -> {
+                ForkJoinTask.invokeAll(tasks);
+                List<EdgeCounter> results = new ArrayList<>(tasks.size());
+                for (ChunkTask task : tasks) {
+                    results.add(task.join());
+                }
+                return results;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("导入被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // 按块顺序合并：每块接在前一块之后，自动补上跨越块边界的边，
+    // 这样边的首次出现顺序与单线程 buildGraph 完全一致
+    private static void merge(GraphBuilder builder, List<EdgeCounter> chunks) {
+        EdgeCounter merged = new EdgeCounter();
+        for (EdgeCounter chunk : chunks) {
+            merged.append(chunk);
+        }
+        builder.finishBuild(merged);
+    }
+
+    // ASCII字母在这些编码中是单字节，且多字节字符的任何字节都不会落在字母范围内。
+    // GBK、Shift_JIS等编码的第二个字节可能是ASCII字母，UTF-16每个字符都占两个字节
+    static boolean isByteCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    // 单个分块的分词与计数。只按ASCII字母切词，UTF-8多字节字符的每个字节都不在该范围内，
+    // 因此按字节扫描与按字符扫描结果一致
+    private static class ChunkTask extends RecursiveTask<EdgeCounter> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected EdgeCounter compute() {
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            EdgeCounter chunk = new EdgeCounter();
+            byte[] word = new byte[64];
+            int length = 0;
+            int limit = buffer.limit();
+            for (int i = 0; i <= limit; i++) {
+                byte b = i < limit ? buffer.get(i) : (byte) ' ';
+                if (isLetter(b)) {
+                    if (length == word.length) {
+                        word = Arrays.copyOf(word, length * 2);
+                    }
+                    word[length++] = b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+                } else if (length > 0) {
+                    chunk.accept(new String(word, 0, length, StandardCharsets.US_ASCII));
+                    length = 0;
+                }
+            }
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// 拉取式并行PageRank：每个顶点沿反向CSR汇总入邻居的贡献 rank[u] / outDegree(u)。
+// 顶点按入边数均衡地切成固定大小的块，各块在fork-join池上独立计算；
+// 每轮只遍历一次：同时算出新值、L1差值、下一轮的悬挂节点总和以及下一轮的贡献。
+// 块的划分与线程数无关，部分和按块顺序相加，结果在不同核数下完全相同
+final class ParallelPageRank {
+    private static final int GRAIN = 1 << 14;   // 每块约包含的顶点数 + 入边数
+
+    private final GraphSnapshot graph;
+    private final int[] bounds;          // 第c块为 [bounds[c], bounds[c+1])
+    private final double[] partialDiff;
+    private final double[] partialDangling;
+
+    private ParallelPageRank(GraphSnapshot graph) {
+        this.graph = graph;
+        this.bounds = split(graph);
+        this.partialDiff = new double[bounds.length - 1];
+        this.partialDangling = new double[bounds.length - 1];
+    }
+
+    private static int[] split(GraphSnapshot graph) {
+        int n = graph.size();
+        int[] bounds = new int[n + 1];
+        int chunks = 0;
+        long load = 0;
+        for (int v = 0; v < n; v++) {
+            load += 1 + graph.inDegree(v);
+            if (load >= GRAIN) {
+                bounds[++chunks] = v + 1;
+                load = 0;
+            }
+        }
+        if (bounds[chunks] < n) bounds[++chunks] = n;
+        int[] result = new int[chunks + 1];
+        System.arraycopy(bounds, 0, result, 0, chunks + 1);
+        return result;
+    }
+
+    //PageRank计算，使用TF-IDF进行初始化；收敛时返回上一轮的值，与顺序实现一致
+    static GraphBuilder.PageRankResult compute(GraphSnapshot graph, double dampingFactor, double epsilon,
+                                               int maxIter, ForkJoinPool pool) {
+        final int n = graph.size();
+        if (n == 0) return new GraphBuilder.PageRankResult(Collections.emptyMap(), 0);
+        return new ParallelPageRank(graph).run(dampingFactor, epsilon, maxIter, pool, null);
+    }
+
+    // 从给定的初值（如增量更新得到的近似值）开始迭代，初值不会被修改
+    static GraphBuilder.PageRankResult warmStart(GraphSnapshot graph, double[] initial, double dampingFactor,
+                                                 double epsilon, int maxIter, ForkJoinPool pool) {
+        return new ParallelPageRank(graph).run(dampingFactor, epsilon, maxIter, pool, initial);
+    }
+
+    private GraphBuilder.PageRankResult run(double dampingFactor, double epsilon, int maxIter, ForkJoinPool pool,
+                                            double[] initial) {
+        final int n = graph.size();
+        double[] rank = new double[n];
+        double[] newRank = new double[n];
+        double[] contribution = new double[n];      // rank[u] / outDegree(u)，悬挂节点为0
+        double[] newContribution = new double[n];
+
+        if (initial != null) {
+            System.arraycopy(initial, 0, rank, 0, n);
+        } else {
+            // 1. TF-IDF初始化
+            final double logN = Math.log(n);
+            double sumTFIDF = 0;
+            for (int v = 0; v < n; v++) {
+                rank[v] = graph.termFrequency[v] * (logN - Math.log(graph.outDegree(v) + 1));
+                sumTFIDF += rank[v];
+            }
+            for (int v = 0; v < n; v++) {
+                rank[v] /= sumTFIDF;
+            }
+        }
+        double danglingSum = 0;
+        for (int v = 0; v < n; v++) {
+            int degree = graph.outDegree(v);
+            if (degree == 0) {
+                danglingSum += rank[v];
+            } else {
+                contribution[v] = rank[v] / degree;
+            }
+        }
+
+        // 2. 迭代计算
+        int iter = 0;
+        double diff = 0;
+        for (; iter < maxIter; iter++) {
+            // 悬挂节点（出度为0）的贡献平均分给所有节点
+            final double constTerm = (1 - dampingFactor) / n + dampingFactor * danglingSum / n;
+            Pass pass = new Pass(0, bounds.length - 1, rank, newRank, contribution, newContribution,
+                    constTerm, dampingFactor);
+            if (bounds.length == 2) {
+                pass.compute();
+            } else {
+                pool.invoke(pass);
+            }
+
+            diff = 0;
+            double nextDangling = 0;
+            for (int c = 0; c < partialDiff.length; c++) {
+                diff += partialDiff[c];
+                nextDangling += partialDangling[c];
+            }
+            // 检查收敛条件
+            if (diff < epsilon) break;
+
+            double[] temp = rank;
+            rank = newRank;
+            newRank = temp;
+            temp = contribution;
+            contribution = newContribution;
+            newContribution = temp;
+            danglingSum = nextDangling;
+        }
+
+        double rankSum = 0;
+        for (int v = 0; v < n; v++) {
+            rankSum += rank[v];
+        }
+        RankVector ranks = new RankVector(rank);
+        return new GraphBuilder.PageRankResult(new RankMap(graph, ranks), iter + 1, n, graph, ranks,
+                dampingFactor, danglingSum, rankSum, diff);
+    }
+
+    // 以快照ID索引的PageRank值的只读Map视图，不需要为每个节点装箱建表
+    static final class RankMap extends AbstractMap<Node, Double> {
+        private final GraphSnapshot graph;
+        private final RankVector ranks;
+
+        RankMap(GraphSnapshot graph, RankVector ranks) {
+            this.graph = graph;
+            this.ranks = ranks;
+        }
+
+        @Override
+        public int size() {
+            return graph.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Node && graph.id(((Node) key).getWord()) >= 0;
+        }
+
+        @Override
+        public Double get(Object key) {
+            if (!(key instanceof Node)) return null;
+            int id = graph.id(((Node) key).getWord());
+            return id < 0 ? null : ranks.get(id);
+        }
+
+        @Override
+        public Set<Entry<Node, Double>> entrySet() {
+            return new AbstractSet<Entry<Node, Double>>() {
+                @Override
+                public int size() {
+                    return graph.size();
+                }
+
+                @Override
+                public Iterator<Entry<Node, Double>> iterator() {
+                    return new Iterator<Entry<Node, Double>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < graph.size();
+                        }
+
+                        @Override
+                        public Entry<Node, Double> next() {
+                            if (next >= graph.size()) throw new NoSuchElementException();
+                            int id = next++;
+                            return new SimpleImmutableEntry<>(graph.node(id), ranks.get(id));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    // 一轮迭代中对块区间 [fromChunk, toChunk) 的计算，区间大于一块时二分递归
+    private final class Pass extends RecursiveAction {
+        private final int fromChunk;
+        private final int toChunk;
+        private final double[] rank;
+        private final double[] newRank;
+        private final double[] contribution;
+        private final double[] newContribution;
+        private final double constTerm;
+        private final double dampingFactor;
+
+        Pass(int fromChunk, int toChunk, double[] rank, double[] newRank, double[] contribution,
+             double[] newContribution, double constTerm, double dampingFactor) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.rank = rank;
+            this.newRank = newRank;
+            this.contribution = contribution;
+            this.newContribution = newContribution;
+            this.constTerm = constTerm;
+            this.dampingFactor = dampingFactor;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                int mid = (fromChunk + toChunk) >>> 1;
+                invokeAll(new Pass(fromChunk, mid, rank, newRank, contribution, newContribution,
+                                constTerm, dampingFactor),
+                        new Pass(mid, toChunk, rank, newRank, contribution, newContribution,
+                                constTerm, dampingFactor));
+                return;
+            }
+            final int[] inOffsets = graph.inOffsets;
+            final int[] inSources = graph.inSources;
+            double diff = 0;
+            double dangling = 0;
+            for (int v = bounds[fromChunk]; v < bounds[fromChunk + 1]; v++) {
+                double incomingSum = 0;
+                for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                    incomingSum += contribution[inSources[e]];
+                }
+                double value = constTerm + dampingFactor * incomingSum;
+                newRank[v] = value;
+                diff += Math.abs(value - rank[v]);
+                int degree = graph.outDegree(v);
+                if (degree == 0) {
+                    dangling += value;
+                    newContribution[v] = 0;
+                } else {
+                    newContribution[v] = value / degree;
+                }
+            }
+            partialDiff[fromChunk] = diff;
+            partialDangling[fromChunk] = dangling;
+        }
+    }
+}
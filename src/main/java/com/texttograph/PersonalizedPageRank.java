@@ -0,0 +1,348 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// 个性化PageRank：随机冲浪者以概率1-d跳回种子词（按种子权重），悬挂节点也跳回种子词。
+// 两种算法都只在被访问到的节点上保存数值（稀疏表），不为每个节点分配分数：
+//   PUSH        前向推送（Andersen-Chung-Lang），剩余残差满足 r[u] <= accuracy * max(1, 出度)
+//   MONTE_CARLO 从种子出发的几何长度随机游走，终点的频率即分数；
+//               游走次数为 1 / accuracy^2，每个分数的标准差不超过 accuracy / 2
+public class PersonalizedPageRank {
+    private static final long RANDOM_SEED = 0x5DEECE66DL;   // 固定种子，结果可复现
+    private static final int WALKS_PER_TASK = 1 << 12;
+
+    public enum Mode {
+        PUSH,
+        MONTE_CARLO
+    }
+
+    public static class Score {
+        public final Node node;
+        public final double value;
+
+        Score(Node node, double value) {
+            this.node = node;
+            this.value = value;
+        }
+    }
+
+    public static class Result {
+        public final List<Score> top;        // 分数从高到低的前k个节点
+        public final int touchedNodes;       // 得到非零分数或残差的节点数
+        public final long work;              // 推送次数或游走步数
+
+        Result(List<Score> top, int touchedNodes, long work) {
+            this.top = Collections.unmodifiableList(top);
+            this.touchedNodes = touchedNodes;
+            this.work = work;
+        }
+    }
+
+    private final GraphSnapshot graph;
+    private final int[] seeds;
+    private final double[] seedWeights;   // 已归一化
+
+    // seeds为节点ID，weights为对应的正权重
+    public PersonalizedPageRank(GraphSnapshot graph, int[] seeds, double[] weights) {
+        if (seeds.length == 0 || seeds.length != weights.length) {
+            throw new IllegalArgumentException("种子为空或权重个数不匹配");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight > 0)) throw new IllegalArgumentException("种子权重必须为正: " + weight);
+            total += weight;
+        }
+        this.graph = graph;
+        this.seeds = seeds.clone();
+        this.seedWeights = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            seedWeights[i] = weights[i] / total;
+        }
+    }
+
+    public Result compute(double dampingFactor, int k, Mode mode, double accuracy) {
+        return compute(dampingFactor, k, mode, accuracy, ForkJoinPool.commonPool());
+    }
+
+    // accuracy不为正时推送不会停止，d不小于1时随机游走不会结束，直接拒绝
+    public Result compute(double dampingFactor, int k, Mode mode, double accuracy, ForkJoinPool pool) {
+        if (!(dampingFactor >= 0 && dampingFactor < 1)) {
+            throw new IllegalArgumentException("阻尼系数必须在[0, 1)内: " + dampingFactor);
+        }
+        if (!(accuracy > 0)) throw new IllegalArgumentException("精度必须为正: " + accuracy);
+        return mode == Mode.PUSH ? push(dampingFactor, k, accuracy) : monteCarlo(dampingFactor, k, accuracy, pool);
+    }
+
+    // 前向推送：把节点u的残差的1-d部分计入分数，其余d部分平均推给出邻居
+    private Result push(double dampingFactor, int k, double accuracy) {
+        SparseVector score = new SparseVector();
+        SparseVector residual = new SparseVector();
+        IntQueue queue = new IntQueue();
+        for (int i = 0; i < seeds.length; i++) {
+            if (enqueue(residual, seeds[i], seedWeights[i], accuracy)) queue.offer(seeds[i]);
+        }
+
+        long pushes = 0;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            double r = residual.get(u);
+            residual.set(u, 0);
+            score.add(u, (1 - dampingFactor) * r);
+            pushes++;
+
+            int degree = graph.outDegree(u);
+            if (degree == 0) {
+                // 悬挂节点跳回种子
+                for (int i = 0; i < seeds.length; i++) {
+                    if (enqueue(residual, seeds[i], dampingFactor * r * seedWeights[i], accuracy)) {
+                        queue.offer(seeds[i]);
+                    }
+                }
+                continue;
+            }
+            double share = dampingFactor * r / degree;
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                if (enqueue(residual, graph.targets[e], share, accuracy)) queue.offer(graph.targets[e]);
+            }
+        }
+        // 得到分数的节点都曾有过残差
+        return new Result(top(score, k), residual.size(), pushes);
+    }
+
+    private double threshold(int u, double accuracy) {
+        return accuracy * Math.max(1, graph.outDegree(u));
+    }
+
+    // 加上残差后刚好越过阈值的节点需要入队；之前已越过的仍在队列中，不重复入队
+    private boolean enqueue(SparseVector residual, int v, double amount, double accuracy) {
+        double before = residual.get(v);
+        residual.add(v, amount);
+        double limit = threshold(v, accuracy);
+        return before <= limit && before + amount > limit;
+    }
+
+    // 可增长的循环队列
+    private static final class IntQueue {
+        private int[] values = new int[16];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void offer(int v) {
+            if (size == values.length) {
+                int[] grown = new int[values.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = values[(head + i) % values.length];
+                }
+                values = grown;
+                head = 0;
+            }
+            values[(head + size++) % values.length] = v;
+        }
+
+        int poll() {
+            int v = values[head];
+            head = (head + 1) % values.length;
+            size--;
+            return v;
+        }
+    }
+
+    // 蒙特卡洛：游走分成固定大小的任务并行执行，每个任务的随机数流在启动前按顺序分裂出来，
+    // 结果与线程数无关
+    private Result monteCarlo(double dampingFactor, int k, double accuracy, ForkJoinPool pool) {
+        long walks = (long) Math.ceil(1 / (accuracy * accuracy));
+        double[] cumulative = new double[seeds.length];
+        double sum = 0;
+        for (int i = 0; i < seeds.length; i++) {
+            sum += seedWeights[i];
+            cumulative[i] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(RANDOM_SEED);
+        List<WalkTask> tasks = new ArrayList<>();
+        for (long start = 0; start < walks; start += WALKS_PER_TASK) {
+            tasks.add(new WalkTask(random.split(), (int) Math.min(WALKS_PER_TASK, walks - start),
+                    dampingFactor, cumulative));
+        }
+        SparseVector counts = pool.invoke(new RecursiveTask<SparseVector>() {
+            @Override
+            protected SparseVector compute() {
+                invokeAll(tasks);
+                SparseVector merged = new SparseVector();
+                for (WalkTask task : tasks) {
+                    task.join().forEach((v, count) -> merged.add(v, count));
+                }
+                return merged;
+            }
+        });
+        long steps = 0;
+        for (WalkTask task : tasks) {
+            steps += task.steps;
+        }
+        SparseVector score = new SparseVector();
+        counts.forEach((v, count) -> score.set(v, count / walks));
+        return new Result(top(score, k), score.size(), steps);
+    }
+
+    private final class WalkTask extends RecursiveTask<SparseVector> {
+        private final SplittableRandom random;
+        private final int walks;
+        private final double dampingFactor;
+        private final double[] cumulative;
+        long steps;
+
+        WalkTask(SplittableRandom random, int walks, double dampingFactor, double[] cumulative) {
+            this.random = random;
+            this.walks = walks;
+            this.dampingFactor = dampingFactor;
+            this.cumulative = cumulative;
+        }
+
+        @Override
+        protected SparseVector compute() {
+            SparseVector endpoints = new SparseVector();
+            for (int w = 0; w < walks; w++) {
+                int current = sampleSeed();
+                // 每一步以概率d继续，悬挂节点跳回种子
+                while (random.nextDouble() < dampingFactor) {
+                    steps++;
+                    int degree = graph.outDegree(current);
+                    current = degree == 0 ? sampleSeed() : graph.targets[graph.offsets[current] + random.nextInt(degree)];
+                }
+                endpoints.add(current, 1);
+            }
+            return endpoints;
+        }
+
+        private int sampleSeed() {
+            if (seeds.length == 1) return seeds[0];
+            int i = Arrays.binarySearch(cumulative, random.nextDouble());
+            i = i < 0 ? -i - 1 : i;
+            return seeds[Math.min(i, seeds.length - 1)];
+        }
+    }
+
+    // 在稀疏分数中选出前k个：大小为k的最小堆，分数相同时ID小的优先
+    private List<Score> top(SparseVector score, int k) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>(Math.max(1, k), (a, b) -> {
+            int c = Double.compare(Double.longBitsToDouble(a[1]), Double.longBitsToDouble(b[1]));
+            return c != 0 ? c : Long.compare(b[0], a[0]);
+        });
+        score.forEach((v, value) -> {
+            if (k <= 0 || value <= 0) return;
+            if (heap.size() < k) {
+                heap.add(new long[]{v, Double.doubleToLongBits(value)});
+            } else {
+                long[] min = heap.peek();
+                double minValue = Double.longBitsToDouble(min[1]);
+                if (value > minValue || (value == minValue && v < min[0])) {
+                    heap.poll();
+                    heap.add(new long[]{v, Double.doubleToLongBits(value)});
+                }
+            }
+        });
+        List<Score> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            long[] entry = heap.poll();
+            result.add(new Score(graph.node((int) entry[0]), Double.longBitsToDouble(entry[1])));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // 开放寻址的 int -> double 稀疏表，只保存访问过的节点
+    static final class SparseVector {
+        private static final int EMPTY = -1;
+
+        interface Visitor {
+            void visit(int key, double value);
+        }
+
+        private int[] keys = new int[16];
+        private double[] values = new double[16];
+        private int size;
+
+        SparseVector() {
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int size() {
+            return size;
+        }
+
+        double get(int key) {
+            int slot = find(key);
+            return keys[slot] == EMPTY ? 0 : values[slot];
+        }
+
+        boolean contains(int key) {
+            return keys[find(key)] != EMPTY;
+        }
+
+        void set(int key, double value) {
+            int slot = insert(key);   // 可能扩容，先取槽位再取数组
+            values[slot] = value;
+        }
+
+        void add(int key, double amount) {
+            int slot = insert(key);
+            values[slot] += amount;
+        }
+
+        void forEach(Visitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) visitor.visit(keys[slot], values[slot]);
+            }
+        }
+
+        private int find(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private int insert(int key) {
+            int slot = find(key);
+            if (keys[slot] == EMPTY) {
+                if ((size + 1) * 2 > keys.length) {
+                    rehash();
+                    slot = find(key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new double[keys.length];
+            Arrays.fill(keys, EMPTY);
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    int target = find(oldKeys[slot]);
+                    keys[target] = oldKeys[slot];
+                    values[target] = oldValues[slot];
+                }
+            }
+        }
+    }
+}
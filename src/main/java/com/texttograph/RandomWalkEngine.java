@@ -0,0 +1,173 @@
+package com.texttograph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPOutputStream;
+
+// 批量随机游走：规则与GraphSnapshot.randomWalk相同（随机起点、均匀选择出边、遇到重复边或无出边时停止），
+// 用于生成大量游走作为训练数据。游走按固定大小分批，每批的SplittableRandom在提交前按顺序从根种子分裂，
+// 因此同一种子在任意线程数下产生相同的输出。每批在fork-join池上独立游走，结果按批次顺序写出，
+// 同时在途的批次数有上限，内存占用与游走总数无关。可选按边权选边和node2vec式的二阶偏置(p, q)
+public class RandomWalkEngine {
+    private static final int WALKS_PER_BATCH = 1 << 12;
+    private static final int BATCHES_IN_FLIGHT_PER_THREAD = 2;
+
+    // 进度回调，在写出线程中调用
+    public interface ProgressListener {
+        void onProgress(long completedWalks, long totalWalks);
+    }
+
+    private final GraphSnapshot graph;
+    private final long seed;
+    private final int maxLength;     // 每次游走最多经过的边数
+    private final WalkSampler sampler;
+
+    public RandomWalkEngine(GraphSnapshot graph, long seed) {
+        this(graph, seed, Integer.MAX_VALUE);
+    }
+
+    public RandomWalkEngine(GraphSnapshot graph, long seed, int maxLength) {
+        this(graph, seed, maxLength, false, 1, 1);
+    }
+
+    // weighted为true时按边权选择出边；p、q为node2vec的返回与出入参数，p = q = 1 时为一阶游走
+    public RandomWalkEngine(GraphSnapshot graph, long seed, int maxLength, boolean weighted, double p, double q) {
+        this.graph = graph;
+        this.seed = seed;
+        this.maxLength = maxLength;
+        this.sampler = new WalkSampler(graph, weighted, p, q);
+    }
+
+    // 缓冲写出到文件，compress为true时使用GZIP压缩；文件已存在时覆盖
+    public static Writer openWriter(Path path, boolean compress) throws IOException {
+        OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (compress) {
+            out = new GZIPOutputStream(out, 1 << 16);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    public long writeWalks(long count, Path path, boolean compress) throws IOException {
+        try (Writer writer = openWriter(path, compress)) {
+            return writeWalks(count, writer, ForkJoinPool.commonPool(), null);
+        }
+    }
+
+    // 每行一次游走，单词以空格分隔；返回写出的单词总数。writer由调用方关闭
+    public long writeWalks(long count, Writer writer, ForkJoinPool pool, ProgressListener listener)
+            throws IOException {
+        if (graph.size() == 0 || count <= 0) return 0;
+        SplittableRandom root = new SplittableRandom(seed);
+        int window = Math.max(1, pool.getParallelism() * BATCHES_IN_FLIGHT_PER_THREAD);
+        long words = 0;
+        long done = 0;
+        while (done < count) {
+            List<Batch> batches = new ArrayList<>(window);
+            long submitted = done;
+            while (batches.size() < window && submitted < count) {
+                int size = (int) Math.min(WALKS_PER_BATCH, count - submitted);
+                batches.add(new Batch(root.split(), size));
+                submitted += size;
+            }
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(batches);
+                    return null;
+                }
+            });
+            for (Batch batch : batches) {
+                Walks walks = batch.join();
+                words += walks.write(writer);
+                done += walks.count;
+                if (listener != null) listener.onProgress(done, count);
+            }
+        }
+        writer.flush();
+        return words;
+    }
+
+    // 一批游走的结果：第i次游走的节点ID位于 nodes[offsets[i], offsets[i+1])
+    private final class Walks {
+        final int count;
+        final int[] offsets;
+        final int[] nodes;
+
+        Walks(int count, int[] offsets, int[] nodes) {
+            this.count = count;
+            this.offsets = offsets;
+            this.nodes = nodes;
+        }
+
+        long write(Writer writer) throws IOException {
+            for (int i = 0; i < count; i++) {
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    if (j > offsets[i]) writer.write(' ');
+                    writer.write(graph.word(nodes[j]));
+                }
+                writer.write('\n');
+            }
+            return offsets[count];
+        }
+    }
+
+    private final class Batch extends RecursiveTask<Walks> {
+        private final SplittableRandom random;
+        private final int count;
+
+        Batch(SplittableRandom random, int count) {
+            this.random = random;
+            this.count = count;
+        }
+
+        @Override
+        protected Walks compute() {
+            int[] offsets = new int[count + 1];
+            int[] nodes = new int[Math.max(16, count * 4)];
+            int size = 0;
+            // 已访问边的位图在整批游走中复用，每次游走后只清除置过的位
+            BitSet visited = new BitSet(graph.edgeCount());
+            int[] usedEdges = new int[16];
+            for (int w = 0; w < count; w++) {
+                int used = 0;
+                int previous = -1;
+                int current = random.nextInt(graph.size());
+                if (size == nodes.length) nodes = Arrays.copyOf(nodes, size * 2);
+                nodes[size++] = current;
+                for (int steps = 0; steps < maxLength; steps++) {
+                    int chosen = sampler.next(previous, current, random);
+                    if (chosen < 0) break;
+                    if (size == nodes.length) nodes = Arrays.copyOf(nodes, size * 2);
+                    nodes[size++] = graph.targets[chosen];
+                    if (visited.get(chosen)) break;   // 重复边：记录终点后停止
+                    visited.set(chosen);
+                    if (used == usedEdges.length) usedEdges = Arrays.copyOf(usedEdges, used * 2);
+                    usedEdges[used++] = chosen;
+                    previous = current;
+                    current = graph.targets[chosen];
+                }
+                for (int i = 0; i < used; i++) {
+                    visited.clear(usedEdges[i]);
+                }
+                offsets[w + 1] = size;
+            }
+            return new Walks(count, offsets, nodes);
+        }
+    }
+}
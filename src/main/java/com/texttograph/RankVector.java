@@ -0,0 +1,68 @@
+package com.texttograph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// PageRank值的分层存储，使增量更新的代价只与变化的规模有关：最底层是一个完整数组
+// （之后不再修改，可被多个结果共享），每次增量更新在上面叠加一层稀疏的改写；
+// 所有值再乘以整体缩放因子，均匀吸收只改这个因子，不逐个节点相乘。
+// 读取时从最上层往下找，层数或改写总数过多时由增量更新合并成新的完整数组
+final class RankVector {
+    private final double[] base;
+    private final RankVector parent;
+    private final PersonalizedPageRank.SparseVector changes;   // 本层改写的值（未乘缩放因子），最底层为null
+    final double scale;
+    final int depth;
+    final long changedEntries;   // base之上各层改写条目数之和
+
+    RankVector(double[] values) {
+        this(values, null, null, 1, 0, 0);
+    }
+
+    private RankVector(double[] base, RankVector parent, PersonalizedPageRank.SparseVector changes,
+                       double scale, int depth, long changedEntries) {
+        this.base = base;
+        this.parent = parent;
+        this.changes = changes;
+        this.scale = scale;
+        this.depth = depth;
+        this.changedEntries = changedEntries;
+    }
+
+    // 叠加一层改写并换成新的缩放因子，changes中的值未乘缩放因子
+    RankVector overlay(PersonalizedPageRank.SparseVector changes, double scale) {
+        return new RankVector(base, this, changes, scale, depth + 1, changedEntries + changes.size());
+    }
+
+    double get(int v) {
+        return raw(v) * scale;
+    }
+
+    // 未乘缩放因子的值；base之后加入的节点为0
+    double raw(int v) {
+        for (RankVector layer = this; layer.changes != null; layer = layer.parent) {
+            if (layer.changes.contains(v)) return layer.changes.get(v);
+        }
+        return v < base.length ? base[v] : 0;
+    }
+
+    // 合并成长度为n的完整数组（已乘缩放因子），O(n)
+    double[] toArray(int n) {
+        double[] values = new double[n];
+        System.arraycopy(base, 0, values, 0, Math.min(n, base.length));
+        List<PersonalizedPageRank.SparseVector> layers = new ArrayList<>();
+        for (RankVector layer = this; layer.changes != null; layer = layer.parent) {
+            layers.add(layer.changes);
+        }
+        // 从下往上覆盖，上层的改写优先
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            layers.get(i).forEach((v, value) -> {
+                if (v < n) values[v] = value;
+            });
+        }
+        for (int v = 0; v < n; v++) {
+            values[v] *= scale;
+        }
+        return values;
+    }
+}
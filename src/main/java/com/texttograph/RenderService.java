@@ -0,0 +1,309 @@
+package com.texttograph;
+
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 后台渲染服务：渲染（默认为DOT导出和Graphviz布局）在有界线程池中执行，不阻塞Swing事件线程。
+// 每个请求按图内容（节点、边、权重）、高亮路径和标题计算SHA-256，作为磁盘缓存的文件名；
+// 哈希在工作线程中计算，调用线程只提交任务。缓存中已有PNG时直接返回；相同内容的请求正在渲染时
+// 跟随它的结果，不重复渲染。缓存总大小超过上限时按最近使用顺序删除旧条目。
+// 取消Future会中断渲染线程并结束dot进程；跟随者被取消不影响正在进行的渲染，
+// 渲染者被取消时仍在等待的跟随者重新提交，由自己渲染
+public class RenderService implements AutoCloseable {
+    private static final int MAX_QUEUED = 16;
+    static final long DEFAULT_MAX_CACHE_BYTES = 256L << 20;
+
+    // 把一个请求渲染成PNG，默认调用Graphviz的dot命令；GraphRenderer为不依赖外部程序的实现
+    public interface Renderer {
+        void render(Request request, Path png) throws IOException, InterruptedException;
+    }
+
+    // 一次渲染的内容。DOT文件只在渲染器需要时写入缓存
+    public static final class Request {
+        public final Collection<Node> nodes;
+        public final List<Edge> edges;
+        public final List<Node> path;     // 为null时不高亮
+        public final String title;
+        private final Path dot;
+
+        Request(Collection<Node> nodes, List<Edge> edges, List<Node> path, String title, Path dot) {
+            this.nodes = nodes;
+            this.edges = edges;
+            this.path = path;
+            this.title = title;
+            this.dot = dot;
+        }
+
+        // 先写临时文件，完成后再改名，缓存中不会出现写了一半的文件
+        public Path dot() throws IOException {
+            if (!Files.exists(dot)) {
+                Path temp = Files.createTempFile(dot.getParent(), dot.getFileName().toString(), ".tmp");
+                GraphExporter.writeDot(nodes, edges, temp, path, title);
+                Files.move(temp, dot, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return dot;
+        }
+    }
+
+    private final Path cacheDirectory;
+    private final Renderer renderer;
+    private final long maxCacheBytes;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+
+    public RenderService(Path cacheDirectory, int workers) {
+        this(cacheDirectory, workers, RenderService::graphviz);
+    }
+
+    public RenderService(Path cacheDirectory, int workers, Renderer renderer) {
+        this(cacheDirectory, workers, renderer, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    public RenderService(Path cacheDirectory, int workers, Renderer renderer, long maxCacheBytes) {
+        this.cacheDirectory = cacheDirectory;
+        this.renderer = renderer;
+        this.maxCacheBytes = maxCacheBytes;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED), task -> {
+                    Thread thread = new Thread(task, "graph-render");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // 渲染子图，path不为null时高亮路径并以title为标题；Future的结果为缓存中的PNG文件。
+    // 渲染期间nodes和edges不能被修改
+    public CompletableFuture<Path> render(Collection<Node> nodes, List<Edge> edges, List<Node> path, String title) {
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        submit(result, nodes, edges, path, title);
+        return result;
+    }
+
+    private void submit(CompletableFuture<Path> result, Collection<Node> nodes, List<Edge> edges,
+                        List<Node> path, String title) {
+        try {
+            Future<?> work = executor.submit(() -> {
+                try {
+                    run(result, nodes, edges, path, title);
+                } catch (InterruptedException e) {
+                    result.cancel(false);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) work.cancel(true);
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new IOException("渲染队列已满，请稍后再试", e));
+        }
+    }
+
+    // 正在渲染的不同内容数（排队中、尚未算出哈希的请求不计入）
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // 在工作线程中计算哈希并查找缓存；没有正在进行的相同渲染时由当前线程渲染
+    private void run(CompletableFuture<Path> result, Collection<Node> nodes, List<Edge> edges,
+                     List<Node> path, String title) throws IOException, InterruptedException {
+        String key = key(nodes, edges, path, title);
+        Path png = cacheDirectory.resolve(key + ".png");
+        if (Files.exists(png)) {
+            touch(png);
+            result.complete(png);
+            return;
+        }
+        CompletableFuture<Path> existing;
+        while ((existing = pending.putIfAbsent(key, result)) != null && existing.isDone()) {
+            pending.remove(key, existing);
+        }
+        if (existing != null) {
+            CompletableFuture<Path> owner = existing;
+            owner.whenComplete((value, error) -> {
+                if (owner.isCancelled()) {
+                    if (!result.isDone()) submit(result, nodes, edges, path, title);
+                } else if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            return;
+        }
+        result.whenComplete((value, error) -> pending.remove(key, result));
+        if (result.isDone()) return;
+        if (Files.exists(png)) {
+            // 查找缓存之后，相同内容的渲染刚好完成
+            result.complete(png);
+            return;
+        }
+        Path rendered = renderNow(key, nodes, edges, path, title);
+        prune(key);
+        result.complete(rendered);
+    }
+
+    // 缓存命中时更新修改时间，作为LRU的使用时间
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // 只影响淘汰顺序
+        }
+    }
+
+    // 缓存超过上限时按使用时间从旧到新删除条目（同名的PNG和DOT一起删除），
+    // 刚渲染的keep和正在渲染的条目不删除；删除失败（例如文件正被占用）的条目跳过
+    private synchronized void prune(String keep) {
+        Map<String, long[]> entries = new HashMap<>();   // 键 -> {使用时间, 字节数}
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(".png") && !name.endsWith(".dot")) continue;
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long[] entry = entries.computeIfAbsent(name.substring(0, name.length() - 4), k -> new long[2]);
+                entry[0] = Math.max(entry[0], attributes.lastModifiedTime().toMillis());
+                entry[1] += attributes.size();
+                total += attributes.size();
+            }
+        } catch (IOException e) {
+            return;   // 渲染结果已就绪，清理留到下次
+        }
+        if (total <= maxCacheBytes) return;
+        List<Map.Entry<String, long[]>> oldestFirst = new ArrayList<>(entries.entrySet());
+        oldestFirst.sort(Comparator.comparingLong(entry -> entry.getValue()[0]));
+        for (Map.Entry<String, long[]> entry : oldestFirst) {
+            if (total <= maxCacheBytes) break;
+            String key = entry.getKey();
+            if (key.equals(keep) || pending.containsKey(key)) continue;
+            try {
+                Files.deleteIfExists(cacheDirectory.resolve(key + ".png"));
+                Files.deleteIfExists(cacheDirectory.resolve(key + ".dot"));
+                total -= entry.getValue()[1];
+            } catch (IOException ignored) {
+                // 文件被占用，留到下次
+            }
+        }
+    }
+
+    // PNG同样先写临时文件再改名
+    private Path renderNow(String key, Collection<Node> nodes, List<Edge> edges, List<Node> path, String title)
+            throws IOException, InterruptedException {
+        Files.createDirectories(cacheDirectory);
+        Request request = new Request(nodes, edges, path, title, cacheDirectory.resolve(key + ".dot"));
+        Path png = cacheDirectory.resolve(key + ".png");
+        Path temp = Files.createTempFile(cacheDirectory, key, ".png.tmp");
+        try {
+            renderer.render(request, temp);
+            if (Thread.interrupted()) throw new InterruptedException();
+            Files.move(temp, png, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return png;
+    }
+
+    static String key(Collection<Node> nodes, List<Edge> edges, List<Node> path, String title) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        // 各部分之间用不会出现在单词中的分隔符隔开
+        for (Node node : nodes) {
+            digest.update(node.getWord().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) 1);
+        byte[] weight = new byte[4];
+        for (Edge edge : edges) {
+            digest.update(edge.getSource().getWord().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(edge.getTarget().getWord().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            int w = edge.getWeight();
+            weight[0] = (byte) (w >>> 24);
+            weight[1] = (byte) (w >>> 16);
+            weight[2] = (byte) (w >>> 8);
+            weight[3] = (byte) w;
+            digest.update(weight);
+        }
+        digest.update((byte) 1);
+        if (path != null) {
+            for (Node node : path) {
+                digest.update(node.getWord().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            digest.update((byte) 1);
+            if (title != null) digest.update(title.getBytes(StandardCharsets.UTF_8));
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    // 调用dot命令；错误输出在后台线程中读取，避免管道写满导致dot阻塞；被中断时结束进程
+    private static void graphviz(Request request, Path png) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("dot", "-Tpng", request.dot().toString(), "-o", png.toString()).start();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Thread drain = new Thread(() -> {
+            byte[] buffer = new byte[4096];
+            try (InputStream in = process.getErrorStream()) {
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    errors.write(buffer, 0, n);
+                }
+            } catch (IOException ignored) {
+                // 进程被结束时管道关闭
+            }
+        });
+        drain.setDaemon(true);
+        drain.start();
+        try {
+            int exitCode = process.waitFor();
+            drain.join();
+            if (exitCode != 0) {
+                throw new IOException("Graphviz错误（退出码 " + exitCode + "）:\n"
+                        + new String(errors.toByteArray(), StandardCharsets.UTF_8));
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+}
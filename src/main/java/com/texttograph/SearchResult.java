@@ -0,0 +1,18 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.util.List;
+
+// 点对点最短路径搜索结果：最短距离、路径和搜索过程中出堆的顶点数
+public class SearchResult {
+    public final int distance;          // 不可达时为GraphSnapshot.UNREACHABLE
+    public final List<Node> path;       // 不可达时为空列表
+    public final int settled;
+
+    SearchResult(int distance, List<Node> path, int settled) {
+        this.distance = distance;
+        this.path = path;
+        this.settled = settled;
+    }
+}
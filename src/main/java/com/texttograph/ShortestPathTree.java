@@ -0,0 +1,109 @@
+package com.texttograph;
+
+import com.texttograph.model.Node;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+// 单源最短路径树：每个顶点的距离和前驱都在松弛时记录，重构路径只需沿前驱回溯
+public class ShortestPathTree {
+    private final GraphSnapshot graph;
+    private final int source;
+    final int[] dist;
+    final int[] parent;     // 最短路径上的前驱，源点和不可达顶点为-1
+
+    ShortestPathTree(GraphSnapshot graph, int source, int[] dist, int[] parent) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+    }
+
+    // 单源最短路径引擎：结果（距离和前驱）完全相同，只是计算方式不同
+    public enum Engine {
+        DIJKSTRA,         // 索引堆，单线程
+        DIAL,             // 按整数距离分桶，单线程
+        DELTA_STEPPING    // 按距离区间分桶，桶内并行松弛
+    }
+
+    public static ShortestPathTree compute(GraphSnapshot graph, int source, Engine engine) {
+        switch (engine) {
+            case DIAL:
+                return DeltaStepping.dial(graph, source);
+            case DELTA_STEPPING:
+                return DeltaStepping.deltaStepping(graph, source, DeltaStepping.defaultDelta(graph));
+            default:
+                return dijkstra(graph, source);
+        }
+    }
+
+    // Dijkstra：CSR出边 + 索引堆，O((V+E) log V)
+    public static ShortestPathTree dijkstra(GraphSnapshot graph, int source) {
+        return dijkstra(graph, source, -1);
+    }
+
+    // target >= 0 时在目标出堆后立即停止，此时只有已出堆顶点的结果是确定的
+    static ShortestPathTree dijkstra(GraphSnapshot graph, int source, int target) {
+        int n = graph.size();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, GraphSnapshot.UNREACHABLE);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        heap.insertOrDecrease(source, 0);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (current == target) break;
+            for (int e = graph.offsets[current]; e < graph.offsets[current + 1]; e++) {
+                int neighbor = graph.targets[e];
+                int newDist = dist[current] + graph.weights[e];
+                if (newDist < dist[neighbor]) {
+                    dist[neighbor] = newDist;
+                    parent[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, newDist);
+                }
+            }
+        }
+        return new ShortestPathTree(graph, source, dist, parent);
+    }
+
+    public GraphSnapshot graph() {
+        return graph;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public boolean isReachable(int target) {
+        return dist[target] != GraphSnapshot.UNREACHABLE;
+    }
+
+    public int distance(int target) {
+        return dist[target];
+    }
+
+    public int parent(int target) {
+        return parent[target];
+    }
+
+    // 沿前驱回溯得到从源点到target的路径，不可达时返回空列表
+    public List<Node> path(int target) {
+        if (!isReachable(target)) return Collections.emptyList();
+        LinkedList<Node> path = new LinkedList<>();
+        for (int v = target; v >= 0; v = parent[v]) {
+            path.addFirst(graph.node(v));
+        }
+        return path;
+    }
+
+    // 按单词查询路径，单词不存在或不可达时返回空列表
+    public List<Node> path(String word) {
+        int target = graph.id(word.toLowerCase());
+        return target < 0 ? Collections.<Node>emptyList() : path(target);
+    }
+}
@@ -0,0 +1,253 @@
+package com.texttograph;
+
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// 渲染前截取有界子图：Graphviz在几千个节点以上几乎无法完成布局。
+// 几种截取方式都带节点和边的预算：
+//   kHop        某个词的k跳邻域（出边和入边都算），每一跳优先加入与前沿连接边权最大的邻居
+//   pathContext 路径上的全部节点，加上每个路径节点边权最大的若干邻居
+//   topNodes    分数（如PageRank）最高的N个节点
+//   topEdges    边权最大的N条边及其端点
+// 子图的边为选中节点之间的边，超出边预算时保留边权最大的（路径边始终保留）
+public class SubgraphExtractor {
+    public static class Subgraph {
+        public final Set<Node> nodes;
+        public final List<Edge> edges;
+        public final boolean truncated;   // 是否因预算而省略了部分节点或边
+
+        Subgraph(Set<Node> nodes, List<Edge> edges, boolean truncated) {
+            this.nodes = Collections.unmodifiableSet(nodes);
+            this.edges = Collections.unmodifiableList(edges);
+            this.truncated = truncated;
+        }
+    }
+
+    public static Subgraph kHop(GraphSnapshot graph, int center, int hops, int maxNodes, int maxEdges) {
+        Selection selection = new Selection(graph, maxNodes);
+        selection.add(center);
+        List<Integer> frontier = Collections.singletonList(center);
+        for (int hop = 0; hop < hops && !frontier.isEmpty() && selection.hasRoom(); hop++) {
+            // 候选邻居的分数为它与前沿之间最大的边权
+            Map<Integer, Integer> candidates = new HashMap<>();
+            for (int u : frontier) {
+                forEachNeighbor(graph, u, (v, weight) -> {
+                    if (!selection.contains(v)) candidates.merge(v, weight, Math::max);
+                });
+            }
+            frontier = selection.addBest(candidates);
+        }
+        return selection.build(maxEdges, null);
+    }
+
+    public static Subgraph pathContext(GraphSnapshot graph, int[] path, int neighborsPerNode,
+                                       int maxNodes, int maxEdges) {
+        Selection selection = new Selection(graph, Math.max(maxNodes, path.length));
+        for (int v : path) {
+            selection.add(v);
+        }
+        for (int u : path) {
+            Map<Integer, Integer> candidates = new HashMap<>();
+            forEachNeighbor(graph, u, (v, weight) -> {
+                if (!selection.contains(v)) candidates.merge(v, weight, Math::max);
+            });
+            selection.addBest(candidates, neighborsPerNode);
+        }
+        BitSet pathEdges = new BitSet(graph.edgeCount());
+        for (int i = 0; i + 1 < path.length; i++) {
+            for (int e = graph.offsets[path[i]]; e < graph.offsets[path[i] + 1]; e++) {
+                if (graph.targets[e] == path[i + 1]) pathEdges.set(e);
+            }
+        }
+        return selection.build(maxEdges, pathEdges);
+    }
+
+    public static Subgraph topNodes(GraphSnapshot graph, Map<Node, Double> scores, int count, int maxEdges) {
+        List<Map.Entry<Node, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        Selection selection = new Selection(graph, count);
+        for (Map.Entry<Node, Double> entry : ranked) {
+            if (!selection.hasRoom()) {
+                selection.truncated = true;
+                break;
+            }
+            int id = graph.id(entry.getKey().getWord());
+            if (id >= 0) selection.add(id);
+        }
+        return selection.build(maxEdges, null);
+    }
+
+    public static Subgraph topEdges(GraphSnapshot graph, int count, int maxNodes) {
+        // 大小为count的最小堆选出边权最大的边
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, count),
+                (a, b) -> graph.weights[a] != graph.weights[b] ? Integer.compare(graph.weights[a], graph.weights[b])
+                        : Integer.compare(b, a));
+        for (int e = 0; e < graph.edgeCount() && count > 0; e++) {
+            if (heap.size() < count) {
+                heap.add(e);
+            } else if (graph.weights[e] > graph.weights[heap.peek()]) {
+                heap.poll();
+                heap.add(e);
+            }
+        }
+        Integer[] best = heap.toArray(new Integer[0]);
+        Arrays.sort(best, (a, b) -> graph.weights[a] != graph.weights[b]
+                ? Integer.compare(graph.weights[b], graph.weights[a]) : Integer.compare(a, b));
+        int[] sources = sources(graph);
+        Selection selection = new Selection(graph, maxNodes);
+        BitSet chosen = new BitSet(graph.edgeCount());
+        for (int e : best) {
+            int u = sources[e];
+            int v = graph.targets[e];
+            int needed = (selection.contains(u) ? 0 : 1) + (selection.contains(v) || u == v ? 0 : 1);
+            if (selection.size() + needed > maxNodes) {
+                selection.truncated = true;
+                continue;
+            }
+            selection.add(u);
+            selection.add(v);
+            chosen.set(e);
+        }
+        selection.truncated |= graph.edgeCount() > count;
+        return selection.buildEdges(chosen);
+    }
+
+    private interface NeighborVisitor {
+        void visit(int neighbor, int weight);
+    }
+
+    private static void forEachNeighbor(GraphSnapshot graph, int u, NeighborVisitor visitor) {
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+            visitor.visit(graph.targets[e], graph.weights[e]);
+        }
+        for (int e = graph.inOffsets[u]; e < graph.inOffsets[u + 1]; e++) {
+            visitor.visit(graph.inSources[e], graph.inWeights[e]);
+        }
+    }
+
+    private static int[] sources(GraphSnapshot graph) {
+        int[] sources = new int[graph.edgeCount()];
+        for (int u = 0; u < graph.size(); u++) {
+            Arrays.fill(sources, graph.offsets[u], graph.offsets[u + 1], u);
+        }
+        return sources;
+    }
+
+    // 已选节点（按加入顺序）
+    private static final class Selection {
+        private final GraphSnapshot graph;
+        private final int maxNodes;
+        private final BitSet selected;
+        private final List<Integer> order = new ArrayList<>();
+        boolean truncated;
+
+        Selection(GraphSnapshot graph, int maxNodes) {
+            this.graph = graph;
+            this.maxNodes = maxNodes;
+            this.selected = new BitSet(graph.size());
+        }
+
+        int size() {
+            return order.size();
+        }
+
+        boolean hasRoom() {
+            return order.size() < maxNodes;
+        }
+
+        boolean contains(int v) {
+            return selected.get(v);
+        }
+
+        void add(int v) {
+            if (!selected.get(v)) {
+                selected.set(v);
+                order.add(v);
+            }
+        }
+
+        List<Integer> addBest(Map<Integer, Integer> candidates) {
+            return addBest(candidates, Integer.MAX_VALUE);
+        }
+
+        // 按分数从高到低（同分ID小的优先）加入至多limit个候选，返回加入的节点
+        List<Integer> addBest(Map<Integer, Integer> candidates, int limit) {
+            List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(candidates.entrySet());
+            ranked.sort((a, b) -> !a.getValue().equals(b.getValue()) ? Integer.compare(b.getValue(), a.getValue())
+                    : Integer.compare(a.getKey(), b.getKey()));
+            List<Integer> added = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : ranked) {
+                if (added.size() >= limit) break;
+                if (!hasRoom()) {
+                    truncated = true;
+                    break;
+                }
+                add(entry.getKey());
+                added.add(entry.getKey());
+            }
+            return added;
+        }
+
+        // 选中节点之间的边，超出预算时保留required中的边和边权最大的边
+        Subgraph build(int maxEdges, BitSet required) {
+            List<Integer> induced = new ArrayList<>();
+            for (int u : order) {
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    if (selected.get(graph.targets[e])) induced.add(e);
+                }
+            }
+            BitSet kept = new BitSet(graph.edgeCount());
+            if (induced.size() <= maxEdges) {
+                for (int e : induced) kept.set(e);
+            } else {
+                truncated = true;
+                int budget = maxEdges;
+                if (required != null) {
+                    for (int e : induced) {
+                        if (required.get(e)) {
+                            kept.set(e);
+                            budget--;
+                        }
+                    }
+                }
+                induced.sort((a, b) -> graph.weights[a] != graph.weights[b]
+                        ? Integer.compare(graph.weights[b], graph.weights[a]) : Integer.compare(a, b));
+                for (int e : induced) {
+                    if (budget <= 0) break;
+                    if (!kept.get(e)) {
+                        kept.set(e);
+                        budget--;
+                    }
+                }
+            }
+            return buildEdges(kept);
+        }
+
+        // 边按图中的顺序输出，节点按加入顺序输出；kept中的边的两个端点都已选中
+        Subgraph buildEdges(BitSet kept) {
+            Set<Node> nodes = new LinkedHashSet<>();
+            for (int v : order) {
+                nodes.add(graph.node(v));
+            }
+            List<Edge> edges = new ArrayList<>(kept.cardinality());
+            for (int u = selected.nextSetBit(0); u >= 0; u = selected.nextSetBit(u + 1)) {
+                int from = kept.nextSetBit(graph.offsets[u]);
+                for (int e = from; e >= 0 && e < graph.offsets[u + 1]; e = kept.nextSetBit(e + 1)) {
+                    edges.add(new Edge(graph.node(u), graph.node(graph.targets[e]), graph.weights[e]));
+                }
+            }
+            return new Subgraph(nodes, edges, truncated);
+        }
+    }
+}
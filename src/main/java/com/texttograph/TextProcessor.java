@@ -1,24 +1,59 @@
 package com.texttograph;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class TextProcessor {
-    public static List<String> processText(String text) {
-        // 1. 将换行符/回车符替换为空格
-        text = text.replaceAll("[\\r\\n]+", " ");
+    private static final int BUFFER_SIZE = 64 * 1024;
 
-        // 2. 将所有标点符号和非字母字符替换为空格
-        text = text.replaceAll("[^a-zA-Z\\s]", " ");
+    public static List<String> processText(String text) {
+        List<String> words = new ArrayList<>();
+        try {
+            processText(new StringReader(text), words::add);
+        } catch (IOException e) {
+            // StringReader不会抛出IO异常
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
 
-        // 3. 将多个连续空格合并为一个
-        text = text.replaceAll("\\s+", " ").trim();
+    // 流式分词：单遍扫描，连续的英文字母构成一个单词，其余字符（标点、换行等）均视为分隔符，
+    // 每得到一个小写单词就立即推送给sink，不保留整篇文本
+    public static void processText(Reader reader, Consumer<String> sink) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder word = new StringBuilder(32);
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            for (int i = 0; i < n; i++) {
+                char c = buffer[i];
+                if (c >= 'a' && c <= 'z') {
+                    word.append(c);
+                } else if (c >= 'A' && c <= 'Z') {
+                    word.append((char) (c + ('a' - 'A')));
+                } else if (word.length() > 0) {
+                    sink.accept(word.toString());
+                    word.setLength(0);
+                }
+            }
+        }
+        if (word.length() > 0) {
+            sink.accept(word.toString());
+        }
+    }
 
-        // 分割为单词列表并转为小写
-        return Arrays.stream(text.split(" "))
-                .filter(word -> !word.isEmpty())
-                .map(String::toLowerCase)
-                .collect(Collectors.toList());
+    // 按文件流式分词，编码与 new String(Files.readAllBytes(...)) 保持一致
+    public static void processText(Path path, Consumer<String> sink) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), Charset.defaultCharset())) {
+            processText(reader, sink);
+        }
     }
-}
\ No newline at end of file
+}
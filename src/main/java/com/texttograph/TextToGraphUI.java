@@ -4,13 +4,28 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 public class TextToGraphUI extends JFrame {
@@ -23,15 +38,36 @@ public class TextToGraphUI extends JFrame {
     private JButton bridgeBtn ;
     //添加生成新文本按钮
     private JButton generateBtn;
+    private JButton markovBtn;
     //添加最短路径生成按钮
     private JButton pathBtn;
     //计算pagerank
     private JButton pageRankBtn;
     //随机游走
     private JButton randomWalkBtn;
+    private JButton exportWalksBtn;
+    private JCheckBox builtInRendererBox;
+    // 正在进行的渲染；新的渲染开始时取消上一个，也可以点按钮取消
+    private JButton cancelRenderBtn;
+    private CompletableFuture<Path> currentRender;
+    // 渲染结果在窗口内分块显示，不交给外部看图程序
+    private JTabbedPane tabs;
+    private TiledImageViewer graphViewer;
     private static final String OUTPUT_FILE = "random_walk.txt";
-
-    private List<String> processedWords;
+    private static final long WALK_SEED = 42;
+    private Writer walkLog;   // random_walk.txt在会话中只打开一次，每次游走后刷新
+
+    // 文本框只显示文件开头部分，大文件不整体读入内存
+    private static final int PREVIEW_CHARS = 1024 * 1024;
+    private static final long PARALLEL_LOAD_BYTES = 64L * 1024 * 1024;
+    // 超过该规模时先截取子图再交给Graphviz；内置渲染器能处理更大的图
+    private static final int RENDER_MAX_NODES = 1000;
+    private static final int RENDER_MAX_EDGES = 3000;
+    private static final int BUILT_IN_RENDER_MAX_NODES = 20000;
+    private static final int BUILT_IN_RENDER_MAX_EDGES = 100000;
+    private static final int PATH_CONTEXT_NEIGHBORS = 5;
+
+    private Path selectedFile;
     private GraphBuilder graphBuilder;
 
     public TextToGraphUI() {
@@ -50,17 +86,24 @@ public class TextToGraphUI extends JFrame {
         visualizeBtn = new JButton("Visualize Graph");
         bridgeBtn = new JButton("Query Bridge Words");
         generateBtn = new JButton("Generate New Text");
+        markovBtn = new JButton("Markov Text");
         pathBtn = new JButton("Shortest Path");
         pageRankBtn = new JButton("Show PageRank");
         randomWalkBtn = new JButton("Random Walk");
+        exportWalksBtn = new JButton("Export Walks");
+        builtInRendererBox = new JCheckBox("Built-in Renderer", GraphVisualizer.isBuiltInRenderer());
+        cancelRenderBtn = new JButton("Cancel Render");
+        cancelRenderBtn.setEnabled(false);
 
         processBtn.setEnabled(false);
         visualizeBtn.setEnabled(false);
         bridgeBtn.setEnabled(false);
         generateBtn.setEnabled(false);
+        markovBtn.setEnabled(false);
         pathBtn.setEnabled(false);
         pageRankBtn.setEnabled(false);
         randomWalkBtn.setEnabled(false);
+        exportWalksBtn.setEnabled(false);
 
         fileChooser = new JFileChooser();
 
@@ -73,15 +116,24 @@ public class TextToGraphUI extends JFrame {
         buttonPanel.add(bridgeBtn);
         //添加generateBtn到按钮面板
         buttonPanel.add(generateBtn);
+        buttonPanel.add(markovBtn);
         //添加pathBtn到按钮面板
         buttonPanel.add(pathBtn);
         //计算pagerank
         buttonPanel.add(pageRankBtn);
         buttonPanel.add(randomWalkBtn);
+        buttonPanel.add(exportWalksBtn);
+        buttonPanel.add(builtInRendererBox);
+        buttonPanel.add(cancelRenderBtn);
+
 
+        graphViewer = new TiledImageViewer();
+        tabs = new JTabbedPane();
+        tabs.addTab("Text", scrollPane);
+        tabs.addTab("Graph", graphViewer);
 
         // 添加组件到窗口
-        add(scrollPane, BorderLayout.CENTER);
+        add(tabs, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
         // 事件监听
@@ -91,9 +143,8 @@ public class TextToGraphUI extends JFrame {
                 int returnVal = fileChooser.showOpenDialog(TextToGraphUI.this);
                 if (returnVal == JFileChooser.APPROVE_OPTION) {
                     try {
-                        String content = new String(Files.readAllBytes(
-                                Paths.get(fileChooser.getSelectedFile().getPath())));
-                        textArea.setText(content);
+                        selectedFile = fileChooser.getSelectedFile().toPath();
+                        textArea.setText(readPreview(selectedFile));
                         processBtn.setEnabled(true);
                     } catch (IOException ex) {
                         JOptionPane.showMessageDialog(TextToGraphUI.this,
@@ -107,10 +158,20 @@ public class TextToGraphUI extends JFrame {
         processBtn.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                String text = textArea.getText();
-                processedWords = TextProcessor.processText(text);
                 graphBuilder = new GraphBuilder();
-                graphBuilder.buildGraph(processedWords);
+                try {
+                    // 直接从文件流式构建，避免整篇语料多次复制；大文件走并行导入
+                    if (Files.size(selectedFile) >= PARALLEL_LOAD_BYTES) {
+                        graphBuilder.buildGraphParallel(selectedFile);
+                    } else {
+                        graphBuilder.buildGraph(selectedFile);
+                    }
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(TextToGraphUI.this,
+                            "Error reading file: " + ex.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 graphBuilder.printGraph();
                 visualizeBtn.setEnabled(true);
                 JOptionPane.showMessageDialog(TextToGraphUI.this,
@@ -120,9 +181,11 @@ public class TextToGraphUI extends JFrame {
                         "Processing Complete", JOptionPane.INFORMATION_MESSAGE);
                 bridgeBtn.setEnabled(true);
                 generateBtn.setEnabled(true);
+                markovBtn.setEnabled(true);
                 pathBtn.setEnabled(true);
                 pageRankBtn.setEnabled(true);
                 randomWalkBtn.setEnabled(true);
+                exportWalksBtn.setEnabled(true);
 
             }
         });
@@ -135,21 +198,59 @@ public class TextToGraphUI extends JFrame {
                         "graph_output");
                 if (filename != null && !filename.trim().isEmpty()) {
                     String fullPath = new File("graph_output/" + filename + ".png").getAbsolutePath();
-                    GraphVisualizer.visualizeAndSave(
-                            graphBuilder.getNodes(),
-                            graphBuilder.getEdges(),
-                            filename);
-                    JOptionPane.showMessageDialog(TextToGraphUI.this,
-                            "Graph visualization saved to " + fullPath ,
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    SubgraphExtractor.Subgraph scope = chooseRenderScope();
+                    if (scope == null) return;
+                    // 后台渲染，完成后在事件线程中提示
+                    track(GraphVisualizer.visualizeAndSave(
+                            scope.nodes,
+                            scope.edges,
+                            filename)).whenComplete((png, error) -> SwingUtilities.invokeLater(() -> {
+                        Throwable cause = error != null && error.getCause() != null ? error.getCause() : error;
+                        if (cause == null) {
+                            showImage(png);
+                            JOptionPane.showMessageDialog(TextToGraphUI.this,
+                                    "Graph visualization saved to " + fullPath ,
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                        } else if (!(cause instanceof CancellationException)) {
+                            JOptionPane.showMessageDialog(TextToGraphUI.this,
+                                    "图片生成失败: " + cause.getMessage(),
+                                    "错误", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }));
                 }
             }
         });
         bridgeBtn.addActionListener(e -> queryBridgeWords());
         generateBtn.addActionListener(e -> generateNewText());
+        markovBtn.addActionListener(e -> generateMarkovText());
         pathBtn.addActionListener(e -> calculateShortestPath());
         pageRankBtn.addActionListener(e -> showPageRank());
         randomWalkBtn.addActionListener(e -> performRandomWalk());
+        exportWalksBtn.addActionListener(e -> exportWalks());
+        builtInRendererBox.addActionListener(e -> GraphVisualizer.setBuiltInRenderer(builtInRendererBox.isSelected()));
+        cancelRenderBtn.addActionListener(e -> {
+            if (currentRender != null) currentRender.cancel(true);
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closeWalkLog();
+                GraphVisualizer.shutdown();
+                graphViewer.close();
+            }
+        });
+    }
+    private String readPreview(Path file) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), Charset.defaultCharset())) {
+            char[] buffer = new char[PREVIEW_CHARS];
+            int length = 0;
+            int n;
+            while (length < buffer.length && (n = reader.read(buffer, length, buffer.length - length)) != -1) {
+                length += n;
+            }
+            String preview = new String(buffer, 0, length);
+            return reader.read() == -1 ? preview : preview + "\n...";
+        }
     }
     // 桥接词查询处理方法
     private void queryBridgeWords() {
@@ -218,38 +319,21 @@ public class TextToGraphUI extends JFrame {
         }
 
 
-        // 预处理新文本（保留原始大小写）
-        List<String> rawWords = Arrays.asList(input.split(" +"));
-        List<String> processedWords = TextProcessor.processText(input);
-        if (processedWords.size() < 2) {
+        if (TextProcessor.processText(input).size() < 2) {
             JOptionPane.showMessageDialog(this, "至少需要两个单词才能生成新文本");
             return;
         }
-        // 构建结果文本
-        StringBuilder newText = new StringBuilder();
-        boolean modified = false;
-        Random rand = new Random();
-
-        // 遍历原始单词对（保留大小写）
-        for (int i = 0; i < processedWords.size() - 1; i++) {
-            String current = processedWords.get(i);
-            String next = processedWords.get(i + 1);
-
-            // 保留原始单词大小写
-            newText.append(rawWords.get(i)).append(" ");
-
-            // 查询桥接词
-            List<String> bridges = graphBuilder.getValidBridges(current, next);
-            if (!bridges.isEmpty()) {
-                String bridge = bridges.get(rand.nextInt(bridges.size()));
-                newText.append(bridge).append(" ");
-                modified = true;
-            }
+        // 流式改写，保留原文的单词、大小写和标点
+        StringWriter newText = new StringWriter();
+        boolean modified;
+        try {
+            modified = new BridgeTextRewriter(graphBuilder.snapshot(), ThreadLocalRandom.current().nextLong())
+                    .rewrite(new StringReader(input), newText) > 0;
+        } catch (IOException ex) {
+            // StringReader和StringWriter不会抛出IO异常
+            throw new UncheckedIOException(ex);
         }
 
-        // 添加最后一个单词
-        newText.append(rawWords.get(rawWords.size() - 1));
-
         // 显示结果
         if (modified) {
             JOptionPane.showMessageDialog(this,
@@ -258,6 +342,29 @@ public class TextToGraphUI extends JFrame {
             JOptionPane.showMessageDialog(this, "文本未改变");
         }
     }
+    // 从种子词出发按二元组频率生成文本
+    private void generateMarkovText() {
+        String seedWord = JOptionPane.showInputDialog(this, "请输入起始单词:");
+        if (seedWord == null || seedWord.trim().isEmpty()) return;
+        String length = JOptionPane.showInputDialog(this, "生成的单词数:", "50");
+        if (length == null) return;
+        String temperature = JOptionPane.showInputDialog(this, "温度（越大越随机）:", "1.0");
+        if (temperature == null) return;
+        String text;
+        try {
+            text = graphBuilder.generateText(seedWord.trim(), Integer.parseInt(length.trim()),
+                    Double.parseDouble(temperature.trim()));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "参数错误: " + ex.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (text == null) {
+            JOptionPane.showMessageDialog(this, "No " + seedWord.trim() + " in the graph!");
+            return;
+        }
+        textArea.setText(text);
+    }
+
     private void calculateShortestPath() {
         String input = JOptionPane.showInputDialog(this,
                 "输入一个或两个单词（用空格分隔）:");
@@ -276,8 +383,9 @@ public class TextToGraphUI extends JFrame {
     }
 
     private void handleSingleWord(String word) {
-        Node start = new Node(word.toLowerCase());
-        if (!graphBuilder.getNodes().contains(start)) {
+        // 一次Dijkstra得到到所有节点的最短路径树
+        ShortestPathTree tree = graphBuilder.shortestPathsFrom(word);
+        if (tree == null) {
             JOptionPane.showMessageDialog(this, "单词不存在！");
             return;
         }
@@ -289,13 +397,11 @@ public class TextToGraphUI extends JFrame {
         textArea.setFont(new Font("等宽字体", Font.PLAIN, 14));
 
         StringBuilder result = new StringBuilder();
-        for (Node end : graphBuilder.getNodes()) {
-            if (!end.equals(start)) {
-                GraphBuilder.PathResult pr = graphBuilder.getShortestPath(word, end.getWord());
-                if (pr.status.equals("SUCCESS")) {
-                    result.append(String.format("%s → %s (总权重: %d)\n路径: %s\n\n",
-                            word, end.getWord(), pr.totalWeight, formatPath(pr.path)));
-                }
+        GraphSnapshot graph = tree.graph();
+        for (int end = 0; end < graph.size(); end++) {
+            if (end != tree.source() && tree.isReachable(end)) {
+                result.append(String.format("%s → %s (总权重: %d)\n路径: %s\n\n",
+                        word, graph.word(end), tree.distance(end), formatPath(tree.path(end))));
             }
         }
         textArea.setText(result.toString());
@@ -327,18 +433,110 @@ public class TextToGraphUI extends JFrame {
                         pr.totalWeight, formatPath(pr.path));
                 // 可视化展示
                 String filename = "shortest_path_" + word1 + "_" + word2;
-                GraphVisualizer.visualizePath(
-                        graphBuilder.getNodes(),
-                        graphBuilder.getEdges(),
+                SubgraphExtractor.Subgraph scope = pathScope(pr.path);
+                showWhenRendered(GraphVisualizer.visualizePath(
+                        scope.nodes,
+                        scope.edges,
                         pr.path,
                         pr.totalWeight,
                         filename
-                );
+                ));
                 JOptionPane.showMessageDialog(this, pathInfo);
                 break;
         }
     }
 
+    // 渲染完成后在图形页中显示render_cache中的PNG（查看器一直打开着它，输出目录中的副本可以随时被覆盖）；
+    // 失败信息已由GraphVisualizer输出
+    private void showWhenRendered(CompletableFuture<Path> rendered) {
+        track(rendered).thenAccept(png -> SwingUtilities.invokeLater(() -> showImage(png)));
+    }
+
+    // 在事件线程中调用：取消上一个未完成的渲染，记录新的渲染，完成前可以点按钮取消
+    private CompletableFuture<Path> track(CompletableFuture<Path> rendered) {
+        if (currentRender != null) currentRender.cancel(true);
+        currentRender = rendered;
+        cancelRenderBtn.setEnabled(!rendered.isDone());
+        rendered.whenComplete((png, error) -> SwingUtilities.invokeLater(() -> {
+            if (currentRender == rendered) {
+                currentRender = null;
+                cancelRenderBtn.setEnabled(false);
+            }
+        }));
+        return rendered;
+    }
+
+    private void showImage(Path png) {
+        try {
+            graphViewer.open(png);
+            tabs.setSelectedComponent(graphViewer);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "无法打开图片: " + ex.getMessage(),
+                    "错误", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private int renderMaxNodes() {
+        return GraphVisualizer.isBuiltInRenderer() ? BUILT_IN_RENDER_MAX_NODES : RENDER_MAX_NODES;
+    }
+
+    private int renderMaxEdges() {
+        return GraphVisualizer.isBuiltInRenderer() ? BUILT_IN_RENDER_MAX_EDGES : RENDER_MAX_EDGES;
+    }
+
+    // 小图整体渲染；大图让用户选择截取方式，取消时返回null
+    private SubgraphExtractor.Subgraph chooseRenderScope() {
+        GraphSnapshot graph = graphBuilder.snapshot();
+        if (graph.size() <= renderMaxNodes() && graph.edgeCount() <= renderMaxEdges()) {
+            return new SubgraphExtractor.Subgraph(graphBuilder.getNodes(), graphBuilder.getEdges(), false);
+        }
+        String[] options = {"单词的k跳邻域", "PageRank最高的节点", "权重最大的边", "整个图"};
+        int choice = JOptionPane.showOptionDialog(this,
+                "图有 " + graph.size() + " 个节点、" + graph.edgeCount() + " 条边，可能无法完成布局。\n请选择要渲染的部分：",
+                "渲染范围", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        switch (choice) {
+            case 0:
+                String word = JOptionPane.showInputDialog(this, "中心单词:");
+                if (word == null) return null;
+                int center = graph.id(word.trim().toLowerCase());
+                if (center < 0) {
+                    JOptionPane.showMessageDialog(this, "No " + word.trim() + " in the graph!");
+                    return null;
+                }
+                String hops = JOptionPane.showInputDialog(this, "跳数:", "2");
+                if (hops == null) return null;
+                try {
+                    return SubgraphExtractor.kHop(graph, center, Integer.parseInt(hops.trim()),
+                            renderMaxNodes(), renderMaxEdges());
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(this, "请输入整数", "错误", JOptionPane.ERROR_MESSAGE);
+                    return null;
+                }
+            case 1:
+                return SubgraphExtractor.topNodes(graph, graphBuilder.calculatePageRank(0.85, 1e-6, 100).values,
+                        renderMaxNodes(), renderMaxEdges());
+            case 2:
+                return SubgraphExtractor.topEdges(graph, renderMaxEdges(), renderMaxNodes());
+            case 3:
+                return new SubgraphExtractor.Subgraph(graphBuilder.getNodes(), graphBuilder.getEdges(), false);
+            default:
+                return null;
+        }
+    }
+
+    // 路径图：大图只渲染路径及其附近的节点
+    private SubgraphExtractor.Subgraph pathScope(List<Node> path) {
+        GraphSnapshot graph = graphBuilder.snapshot();
+        if (graph.size() <= renderMaxNodes() && graph.edgeCount() <= renderMaxEdges()) {
+            return new SubgraphExtractor.Subgraph(graphBuilder.getNodes(), graphBuilder.getEdges(), false);
+        }
+        int[] ids = new int[path.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = graph.id(path.get(i).getWord());
+        }
+        return SubgraphExtractor.pathContext(graph, ids, PATH_CONTEXT_NEIGHBORS, renderMaxNodes(), renderMaxEdges());
+    }
+
     private String formatPath(List<Node> path) {
         return path.stream()
                 .map(Node::getWord)
@@ -392,13 +590,14 @@ public class TextToGraphUI extends JFrame {
                 .append("终止原因: ").append(result.terminationReason).append("\n")
                 .append("路径总权重: ").append(result.totalWeight).append("\n")
                 .append("路径序列: \n");
-        GraphVisualizer.visualizePath(
-                graphBuilder.getNodes(),
-                graphBuilder.getEdges(),
+        SubgraphExtractor.Subgraph scope = pathScope(result.path);
+        showWhenRendered(GraphVisualizer.visualizePath(
+                scope.nodes,
+                scope.edges,
                 result.path,
                 result.totalWeight, // 权重参数不适用
                 "random_walk"
-        );
+        ));
 
 
 
@@ -410,8 +609,13 @@ public class TextToGraphUI extends JFrame {
         sb.append("\n\n");
 
         // 写入文件（追加模式）
-        try (FileWriter writer = new FileWriter(OUTPUT_FILE, true)) {
-            writer.write(sb.toString());
+        try {
+            if (walkLog == null) {
+                walkLog = Files.newBufferedWriter(Paths.get(OUTPUT_FILE), Charset.defaultCharset(),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            walkLog.write(sb.toString());
+            walkLog.flush();
             // 显示结果
             JOptionPane.showMessageDialog(this,
                     sb.toString(),
@@ -425,6 +629,59 @@ public class TextToGraphUI extends JFrame {
         }
     }
 
+    private void closeWalkLog() {
+        if (walkLog == null) return;
+        try {
+            walkLog.close();
+        } catch (IOException ignored) {
+            // 退出时关闭失败无需处理
+        }
+        walkLog = null;
+    }
 
+    // 批量导出随机游走（训练数据），文件名以.gz结尾时压缩；在后台线程中执行
+    private void exportWalks() {
+        String input = JOptionPane.showInputDialog(this, "Number of walks:", "1000000");
+        if (input == null) return;
+        long count;
+        try {
+            count = Long.parseLong(input.trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "请输入整数", "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("walks.txt.gz"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path target = chooser.getSelectedFile().toPath();
+        boolean compress = target.getFileName().toString().endsWith(".gz");
+        RandomWalkEngine engine = new RandomWalkEngine(graphBuilder.snapshot(), WALK_SEED);
+
+        exportWalksBtn.setEnabled(false);
+        new SwingWorker<Long, Long>() {
+            @Override
+            protected Long doInBackground() throws IOException {
+                try (Writer writer = RandomWalkEngine.openWriter(target, compress)) {
+                    return engine.writeWalks(count, writer, ForkJoinPool.commonPool(),
+                            (done, total) -> setProgress((int) (100 * done / total)));
+                }
+            }
 
-}
\ No newline at end of file
+            @Override
+            protected void done() {
+                exportWalksBtn.setEnabled(true);
+                try {
+                    long words = get();
+                    JOptionPane.showMessageDialog(TextToGraphUI.this,
+                            "已导出 " + count + " 次游走（共 " + words + " 个单词）到 " + target,
+                            "导出完成", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(TextToGraphUI.this,
+                            "导出失败: " + cause.getMessage(),
+                            "错误", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+}
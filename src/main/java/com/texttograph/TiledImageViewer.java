@@ -0,0 +1,434 @@
+package com.texttograph;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 分块显示大图：图片按金字塔分级，第L级为原图每隔2^L个像素取一个，切成256×256的块。
+// 绘制时只取当前缩放级别下可见的块，用ImageReader的源区域和子采样直接从文件解码，
+// 从不把整张原图读入内存；解码好的块放在按字节数限制的LRU缓存中。
+// 解码在单独的后台线程中进行，同一行的可见块一次解码；缩放或平移后尚未可见的请求被丢弃。
+// 块还没解码好时先用更粗一级的已缓存块放大顶替。拖动平移，滚轮以鼠标位置为中心缩放。
+// 打开期间一直持有文件，调用方应传入不会被覆盖的文件（如render_cache中按内容命名的PNG）。
+// 局限：非隔行PNG只能顺序解压，源区域之上的所有行都要先解压再丢弃，越靠下的一行块解码越慢，
+// 最坏时接近解码整张图（只是不保留像素）；隔行或分块存储的格式没有这个问题
+public class TiledImageViewer extends JComponent implements AutoCloseable {
+    static final int TILE_SIZE = 256;
+    static final long DEFAULT_CACHE_BYTES = 64L << 20;
+    private static final double MAX_SCALE = 8;
+    private static final double ZOOM_STEP = 1.25;
+
+    private final TileCache cache;
+    private final ExecutorService decoder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "tile-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 待解码的行，键为级别和行号；每次绘制时替换为当前可见的行
+    private final Map<Long, Strip> pending = new LinkedHashMap<>();
+    private boolean draining;
+    private volatile Source source;
+
+    // 视图：屏幕坐标 = (图片坐标 - view) * scale
+    private double scale = 1;
+    private double viewX;
+    private double viewY;
+    private boolean fitted;
+
+    public TiledImageViewer() {
+        this(DEFAULT_CACHE_BYTES);
+    }
+
+    TiledImageViewer(long cacheBytes) {
+        this.cache = new TileCache(cacheBytes);
+        setBackground(Color.LIGHT_GRAY);
+        setOpaque(true);
+        MouseAdapter mouse = new MouseAdapter() {
+            private Point last;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (last == null) return;
+                viewX -= (e.getX() - last.x) / scale;
+                viewY -= (e.getY() - last.y) / scale;
+                last = e.getPoint();
+                repaint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    // 打开PNG（或ImageIO支持的其他格式），只读取文件头；首次绘制时缩放到适合窗口。
+    // 文件在换图或close()之前保持打开，期间不能被覆盖
+    public void open(Path image) throws IOException {
+        ImageInputStream stream = ImageIO.createImageInputStream(image.toFile());
+        if (stream == null) throw new IOException("无法读取图片: " + image);
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+        if (!readers.hasNext()) {
+            stream.close();
+            throw new IOException("不支持的图片格式: " + image);
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(stream, true, true);
+        Source opened;
+        try {
+            opened = new Source(reader, stream, reader.getWidth(0), reader.getHeight(0));
+        } catch (IOException e) {
+            reader.dispose();
+            stream.close();
+            throw e;
+        }
+        replaceSource(opened);
+    }
+
+    public void clear() {
+        replaceSource(null);
+    }
+
+    // 当前缩放比例，1为原始大小
+    public double getScale() {
+        return scale;
+    }
+
+    // 以屏幕坐标(x, y)为中心缩放factor倍
+    public void zoom(double factor, int x, int y) {
+        Source current = source;
+        if (current == null) return;
+        double fit = fitScale(current);
+        double next = Math.max(Math.min(fit, 1) / 4, Math.min(MAX_SCALE, scale * factor));
+        viewX += x / scale - x / next;
+        viewY += y / scale - y / next;
+        scale = next;
+        repaint();
+    }
+
+    @Override
+    public void close() {
+        clear();
+        decoder.shutdown();
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        Source current = source;
+        if (current == null) return;
+        if (current.failed) {
+            g.setColor(Color.DARK_GRAY);
+            g.drawString("图片解码失败", 8, 20);
+            return;
+        }
+        if (!fitted && getWidth() > 0 && getHeight() > 0) {
+            fitted = true;
+            scale = Math.min(1, fitScale(current));
+            viewX = -(getWidth() / scale - current.width) / 2;
+            viewY = -(getHeight() / scale - current.height) / 2;
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        int level = level(current, scale);
+        int step = TILE_SIZE << level;   // 每块覆盖的原图像素数
+        int fromX = Math.max(0, (int) Math.floor(viewX / step));
+        int fromY = Math.max(0, (int) Math.floor(viewY / step));
+        int toX = Math.min((current.width - 1) / step, (int) Math.floor((viewX + getWidth() / scale) / step));
+        int toY = Math.min((current.height - 1) / step, (int) Math.floor((viewY + getHeight() / scale) / step));
+
+        Map<Long, Strip> wanted = new LinkedHashMap<>();
+        for (int ty = fromY; ty <= toY; ty++) {
+            int missingFrom = -1;
+            int missingTo = -1;
+            for (int tx = fromX; tx <= toX; tx++) {
+                BufferedImage tile = cache.get(key(level, tx, ty));
+                if (tile != null) {
+                    drawTile(g, tile, level, tx, ty, 0, 0, tile.getWidth(), tile.getHeight());
+                } else {
+                    drawFallback(g, current, level, tx, ty);
+                    if (missingFrom < 0) missingFrom = tx;
+                    missingTo = tx;
+                }
+            }
+            if (missingFrom >= 0) {
+                wanted.put(stripKey(level, ty), new Strip(current, level, ty, missingFrom, missingTo));
+            }
+        }
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(Math.round(scale * 100) + "%", 8, getHeight() - 8);
+        request(wanted);
+    }
+
+    // 把块画到屏幕上；块的第L级像素(sx, sy)对应原图像素 (tx*step + sx*2^L, ty*step + sy*2^L)
+    private void drawTile(Graphics2D g, BufferedImage tile, int level, int tx, int ty,
+                          int sx1, int sy1, int sx2, int sy2) {
+        int step = TILE_SIZE << level;
+        double x = (tx * (double) step + ((double) sx1 * (1 << level)) - viewX) * scale;
+        double y = (ty * (double) step + ((double) sy1 * (1 << level)) - viewY) * scale;
+        double w = (sx2 - sx1) * (double) (1 << level) * scale;
+        double h = (sy2 - sy1) * (double) (1 << level) * scale;
+        g.drawImage(tile, (int) Math.floor(x), (int) Math.floor(y), (int) Math.ceil(x + w), (int) Math.ceil(y + h),
+                sx1, sy1, sx2, sy2, null);
+    }
+
+    // 在更粗的级别中找覆盖该位置的已缓存块，取对应的部分放大显示
+    private void drawFallback(Graphics2D g, Source current, int level, int tx, int ty) {
+        for (int coarse = level + 1; coarse <= current.levels; coarse++) {
+            int shift = coarse - level;
+            BufferedImage tile = cache.get(key(coarse, tx >> shift, ty >> shift));
+            if (tile == null) continue;
+            int size = TILE_SIZE >> shift;
+            int sx = (tx & ((1 << shift) - 1)) * size;
+            int sy = (ty & ((1 << shift) - 1)) * size;
+            int sx2 = Math.min(tile.getWidth(), sx + Math.max(1, size));
+            int sy2 = Math.min(tile.getHeight(), sy + Math.max(1, size));
+            if (sx >= sx2 || sy >= sy2) return;
+            drawTile(g, tile, coarse, tx >> shift, ty >> shift, sx, sy, sx2, sy2);
+            return;
+        }
+    }
+
+    private double fitScale(Source current) {
+        if (getWidth() <= 0 || getHeight() <= 0) return 1;
+        return Math.min((double) getWidth() / current.width, (double) getHeight() / current.height);
+    }
+
+    // 取每个像素不多于一个屏幕像素的最粗级别
+    private static int level(Source current, double scale) {
+        int level = 0;
+        while (level < current.levels && scale * (2 << level) <= 1) {
+            level++;
+        }
+        return level;
+    }
+
+    private void replaceSource(Source next) {
+        Source previous;
+        synchronized (pending) {
+            previous = source;
+            source = next;
+            pending.clear();
+        }
+        cache.clear();
+        fitted = false;
+        scale = 1;
+        viewX = 0;
+        viewY = 0;
+        // 旧的读取器在解码线程上关闭，排在正在进行的解码之后
+        if (previous != null) decoder.execute(previous::close);
+        repaint();
+    }
+
+    private void request(Map<Long, Strip> wanted) {
+        synchronized (pending) {
+            pending.clear();
+            pending.putAll(wanted);
+            if (draining || pending.isEmpty()) return;
+            draining = true;
+        }
+        decoder.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            Strip strip;
+            synchronized (pending) {
+                Iterator<Strip> it = pending.values().iterator();
+                if (!it.hasNext()) {
+                    draining = false;
+                    return;
+                }
+                strip = it.next();
+                it.remove();
+            }
+            if (strip.source != source) continue;
+            try {
+                decode(strip);
+            } catch (IOException e) {
+                // 不再重复请求
+                strip.source.failed = true;
+                System.err.println("图片解码失败: " + e.getMessage());
+            }
+            SwingUtilities.invokeLater(this::repaint);
+        }
+    }
+
+    // 一次读出一行中连续的若干块，再切开放入缓存
+    private void decode(Strip strip) throws IOException {
+        Source current = strip.source;
+        int sub = 1 << strip.level;
+        int step = TILE_SIZE << strip.level;
+        int x = strip.fromX * step;
+        int y = strip.row * step;
+        int width = Math.min(current.width - x, (strip.toX - strip.fromX + 1) * step);
+        int height = Math.min(current.height - y, step);
+        ImageReadParam param = current.reader.getDefaultReadParam();
+        param.setSourceRegion(new Rectangle(x, y, width, height));
+        param.setSourceSubsampling(sub, sub, 0, 0);
+        BufferedImage region;
+        synchronized (current) {
+            if (current.closed) return;
+            region = current.reader.read(0, param);
+        }
+        for (int tx = strip.fromX; tx <= strip.toX; tx++) {
+            int left = (tx - strip.fromX) * TILE_SIZE;
+            if (left >= region.getWidth()) break;
+            int w = Math.min(TILE_SIZE, region.getWidth() - left);
+            BufferedImage tile = new BufferedImage(w, region.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = tile.createGraphics();
+            g.drawImage(region, 0, 0, w, region.getHeight(), left, 0, left + w, region.getHeight(), null);
+            g.dispose();
+            if (strip.source != source) return;
+            cache.put(key(strip.level, tx, strip.row), tile);
+        }
+    }
+
+    // 同步解码一块，供测试使用
+    BufferedImage tile(int level, int tx, int ty) throws IOException {
+        Source current = source;
+        BufferedImage tile = cache.get(key(level, tx, ty));
+        if (tile == null) {
+            decode(new Strip(current, level, ty, tx, tx));
+            tile = cache.get(key(level, tx, ty));
+        }
+        return tile;
+    }
+
+    long cachedBytes() {
+        return cache.bytes();
+    }
+
+    int levels() {
+        Source current = source;
+        return current == null ? 0 : current.levels;
+    }
+
+    private static long key(int level, int tx, int ty) {
+        return ((long) level << 56) | ((long) ty << 28) | tx;
+    }
+
+    private static long stripKey(int level, int row) {
+        return ((long) level << 32) | row;
+    }
+
+    private static final class Source {
+        final ImageReader reader;
+        final ImageInputStream stream;
+        final int width;
+        final int height;
+        final int levels;   // 最粗一级整张图不超过一块
+        boolean closed;
+        volatile boolean failed;
+
+        Source(ImageReader reader, ImageInputStream stream, int width, int height) {
+            this.reader = reader;
+            this.stream = stream;
+            this.width = width;
+            this.height = height;
+            int levels = 0;
+            while ((TILE_SIZE << levels) < Math.max(width, height)) {
+                levels++;
+            }
+            this.levels = levels;
+        }
+
+        synchronized void close() {
+            if (closed) return;
+            closed = true;
+            reader.dispose();
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // 关闭失败无需处理
+            }
+        }
+    }
+
+    private static final class Strip {
+        final Source source;
+        final int level;
+        final int row;
+        final int fromX;
+        final int toX;
+
+        Strip(Source source, int level, int row, int fromX, int toX) {
+            this.source = source;
+            this.level = level;
+            this.row = row;
+            this.fromX = fromX;
+            this.toX = toX;
+        }
+    }
+
+    // 按字节数限制的LRU缓存，事件线程读、解码线程写
+    private static final class TileCache {
+        private final long capacity;
+        private long bytes;
+        private final LinkedHashMap<Long, BufferedImage> tiles = new LinkedHashMap<>(64, 0.75f, true);
+
+        TileCache(long capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized BufferedImage get(long key) {
+            return tiles.get(key);
+        }
+
+        // 超出容量时从最久未用的块开始淘汰，刚放入的块保留
+        synchronized void put(long key, BufferedImage tile) {
+            BufferedImage old = tiles.remove(key);
+            if (old != null) bytes -= size(old);
+            bytes += size(tile);
+            tiles.put(key, tile);
+            Iterator<BufferedImage> it = tiles.values().iterator();
+            while (bytes > capacity && tiles.size() > 1) {
+                bytes -= size(it.next());
+                it.remove();
+            }
+        }
+
+        synchronized void clear() {
+            tiles.clear();
+            bytes = 0;
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        private static long size(BufferedImage tile) {
+            return 4L * tile.getWidth() * tile.getHeight();
+        }
+    }
+}
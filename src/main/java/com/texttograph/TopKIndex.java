@@ -0,0 +1,72 @@
+package com.texttograph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// 每个节点按边权降序排列的后继（或前驱）列表，查询前k个只需复制前k项。
+// 列表在节点第一次被查询时排序并缓存，跨快照保留：节点ID只追加，追加文本时只有边发生变化
+// （新增或权重增加）的端点被标记为失效，下次查询时重新排序，其余节点的排序结果继续使用
+final class TopKIndex {
+    private final boolean successors;   // true为后继（出边），false为前驱（入边）
+    private int[][] neighbors = new int[0][];
+    private int[][] weights = new int[0][];
+    private final Set<String> stale = new HashSet<>();
+    private int cached;                 // 已缓存的节点数，为0时无需记录失效
+
+    TopKIndex(boolean successors) {
+        this.successors = successors;
+    }
+
+    // 图中以word为端点的边发生了变化
+    synchronized void invalidate(String word) {
+        if (cached > 0) stale.add(word);
+    }
+
+    // 前k个邻居，返回 {邻居ID, 边权} 两个数组；边权相同的按边的插入顺序
+    synchronized int[][] top(GraphSnapshot graph, int v, int k) {
+        sync(graph);
+        if (neighbors[v] == null) sort(graph, v);
+        int count = Math.min(k, neighbors[v].length);
+        return new int[][]{Arrays.copyOf(neighbors[v], count), Arrays.copyOf(weights[v], count)};
+    }
+
+    private void sync(GraphSnapshot graph) {
+        if (neighbors.length < graph.size()) {
+            neighbors = Arrays.copyOf(neighbors, graph.size());
+            weights = Arrays.copyOf(weights, graph.size());
+        }
+        for (String word : stale) {
+            int v = graph.id(word);
+            if (v >= 0 && neighbors[v] != null) {
+                neighbors[v] = null;
+                weights[v] = null;
+                cached--;
+            }
+        }
+        stale.clear();
+    }
+
+    private void sort(GraphSnapshot graph, int v) {
+        int from = successors ? graph.offsets[v] : graph.inOffsets[v];
+        int to = successors ? graph.offsets[v + 1] : graph.inOffsets[v + 1];
+        int[] ends = successors ? graph.targets : graph.inSources;
+        int[] edgeWeights = successors ? graph.weights : graph.inWeights;
+        // 权重取反后与边的位置打包成long，升序排序即权重降序、位置升序
+        long[] packed = new long[to - from];
+        for (int e = from; e < to; e++) {
+            packed[e - from] = ((long) (Integer.MAX_VALUE - edgeWeights[e]) << 32) | (e - from);
+        }
+        Arrays.sort(packed);
+        int[] sortedNeighbors = new int[packed.length];
+        int[] sortedWeights = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            int e = from + (int) packed[i];
+            sortedNeighbors[i] = ends[e];
+            sortedWeights[i] = edgeWeights[e];
+        }
+        neighbors[v] = sortedNeighbors;
+        weights[v] = sortedWeights;
+        cached++;
+    }
+}
@@ -0,0 +1,45 @@
+package com.texttograph;
+
+import java.util.SplittableRandom;
+
+// 游走的下一条边的抽样策略：均匀或按边权，可选node2vec式的二阶偏置。
+// 从t走到v后，v的出边(v, x)的权重乘以 1/p（x == t，返回）、1（t -> x 有边）或 1/q（远离t）；
+// 先按一阶分布抽取，再以 偏置 / 最大偏置 的概率接受，期望尝试次数不超过 最大偏置 / 最小偏置
+final class WalkSampler {
+    private final GraphSnapshot graph;
+    private final AliasTables aliasTables;   // 均匀抽样时为null
+    private final double returnBias;         // 1/p
+    private final double outBias;            // 1/q
+    private final double maxBias;
+    private final boolean secondOrder;
+
+    WalkSampler(GraphSnapshot graph, boolean weighted, double p, double q) {
+        if (!(p > 0) || !(q > 0)) {
+            throw new IllegalArgumentException("p和q必须为正: p=" + p + ", q=" + q);
+        }
+        this.graph = graph;
+        this.aliasTables = weighted ? graph.aliasTables() : null;
+        this.returnBias = 1 / p;
+        this.outBias = 1 / q;
+        this.maxBias = Math.max(1, Math.max(returnBias, outBias));
+        this.secondOrder = p != 1 || q != 1;
+    }
+
+    // 返回current的下一条出边的下标，previous为上一个节点（起点处为-1），无出边时返回-1
+    int next(int previous, int current, SplittableRandom random) {
+        int degree = graph.outDegree(current);
+        if (degree == 0) return -1;
+        if (!secondOrder || previous < 0) return firstOrder(current, degree, random);
+        while (true) {
+            int e = firstOrder(current, degree, random);
+            int x = graph.targets[e];
+            double bias = x == previous ? returnBias : graph.hasEdge(previous, x) ? 1 : outBias;
+            if (bias == maxBias || random.nextDouble() * maxBias < bias) return e;
+        }
+    }
+
+    private int firstOrder(int current, int degree, SplittableRandom random) {
+        return aliasTables != null ? aliasTables.sample(current, random)
+                : graph.offsets[current] + random.nextInt(degree);
+    }
+}
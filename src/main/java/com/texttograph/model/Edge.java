@@ -7,7 +7,6 @@ public class Edge {
 
 
     public Edge(Node source, Node target, int weight) {
-        System.out.println("this is anther change");
         this.source = source;
         this.target = target;
         this.weight = weight;
@@ -29,9 +28,12 @@ public class Edge {
         weight++;
     }
 
+    public void addWeight(int delta) {
+        weight += delta;
+    }
+
     @Override
     public String toString() {
-        System.out.println("a change");
         return source + " -> " + target + " [weight=" + weight + "]";
     }
 }
\ No newline at end of file
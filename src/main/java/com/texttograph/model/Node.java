@@ -4,7 +4,6 @@ public class Node {
     private String word;
 
     public Node(String word) {
-        System.out.println("this is a change");
         this.word = word.toLowerCase(); // 不区分大小写
     }
 
@@ -0,0 +1,100 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AllPairsShortestPathsTest {
+    @TempDir
+    Path tempDir;
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        GraphBuilder builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        graph = builder.snapshot();
+    }
+
+    // 测试用例1：堆内存储与内存映射存储的结果都与单源最短路径树一致
+    @Test
+    public void testMatchesShortestPathTrees() throws IOException {
+        AtomicInteger progress = new AtomicInteger();
+        AllPairsShortestPaths inHeap = AllPairsShortestPaths.compute(
+                graph, tempDir, (done, total) -> progress.set(done), () -> false, Long.MAX_VALUE);
+        AllPairsShortestPaths spilled = AllPairsShortestPaths.compute(
+                graph, tempDir, null, () -> false, 0);
+        // 未指定溢出目录时使用系统临时目录
+        AllPairsShortestPaths defaultDirectory = AllPairsShortestPaths.compute(
+                graph, null, null, () -> false, 0);
+        assertEquals(graph.size(), progress.get());
+        assertFalse(inHeap.isSpilled());
+        assertTrue(spilled.isSpilled());
+        assertTrue(defaultDirectory.isSpilled());
+        assertEquals(spilled.distance(0, graph.size() - 1), defaultDirectory.distance(0, graph.size() - 1));
+
+        for (int s = 0; s < graph.size(); s++) {
+            ShortestPathTree tree = ShortestPathTree.dijkstra(graph, s);
+            for (int t = 0; t < graph.size(); t++) {
+                assertEquals(tree.distance(t), inHeap.distance(s, t));
+                assertEquals(tree.distance(t), spilled.distance(s, t));
+                assertEquals(tree.path(t), inHeap.path(s, t));
+                assertEquals(tree.path(t), spilled.path(s, t));
+            }
+        }
+    }
+
+    // 测试用例2：取消后抛出CancellationException
+    @Test
+    public void testCancel() {
+        assertThrows(CancellationException.class, () -> AllPairsShortestPaths.compute(
+                graph, tempDir, null, () -> true, Long.MAX_VALUE));
+    }
+
+    // 测试用例3：取消GraphBuilder返回的Future会停止计算，已开始的起点算完后不再开始新的起点
+    @Test
+    public void testCancelFromGraphBuilder() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append('w').append(Integer.toString(i * 7 % 300, 26).replaceAll("[0-9]", "x")).append(' ');
+        }
+        GraphBuilder builder = new GraphBuilder();
+        builder.buildGraph(TextProcessor.processText(text.toString()));
+        int n = builder.snapshot().size();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        CompletableFuture<AllPairsShortestPaths> future = builder.precomputeAllPairs(tempDir, (done, total) -> {
+            completed.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        release.countDown();
+        assertTrue(ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS));
+
+        assertTrue(future.isCancelled());
+        assertTrue(completed.get() <= ForkJoinPool.getCommonPoolParallelism() + 1);
+        assertTrue(completed.get() < n);
+    }
+}
@@ -0,0 +1,90 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BridgeIndexTest {
+    private GraphBuilder builder;
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() {
+        // 词频近似Zipf分布的随机文本：少数高频词的度数远大于其余单词，覆盖归并和倍增查找两种情况
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            int rank = (int) Math.floor(Math.pow(300, random.nextDouble()));
+            text.append('w').append((char) ('a' + rank / 26)).append((char) ('a' + rank % 26)).append(' ');
+        }
+        builder = new GraphBuilder();
+        builder.buildGraph(TextProcessor.processText(text.toString()));
+        graph = builder.snapshot();
+    }
+
+    // 测试用例1：有序求交（含归并、倍增查找和高频组合缓存）与逐个检查出邻居的结果一致，顺序相同
+    @Test
+    public void testMatchesNeighborScan() {
+        for (int heavyDegree : new int[]{BridgeIndex.DEFAULT_HEAVY_DEGREE, 1}) {
+            BridgeIndex index = new BridgeIndex(graph, heavyDegree);
+            for (int u = 0; u < graph.size(); u++) {
+                for (int v = 0; v < graph.size(); v++) {
+                    assertEquals(naive(u, v), ids(index.bridges(u, v)), u + " -> " + v);
+                    if (heavyDegree == 1) {
+                        assertEquals(naive(u, v), ids(index.bridges(u, v)));   // 第二次来自缓存
+                    }
+                }
+            }
+        }
+    }
+
+    // 测试用例2：快照上的批量查询与逐对查询一致
+    @Test
+    public void testBatchQuery() {
+        int[] order = new int[graph.size()];
+        for (int v = 0; v < order.length; v++) {
+            order[v] = v;
+        }
+        Random random = new Random(3);
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        int[] first = Arrays.copyOf(order, order.length - 1);
+        int[] second = Arrays.copyOfRange(order, 1, order.length);
+
+        List<List<String>> batch = graph.bridges(first, second);
+        assertEquals(first.length, batch.size());
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(builder.getValidBridges(graph.word(first[i]), graph.word(second[i])), batch.get(i));
+        }
+        assertTrue(graph.bridges(new int[0], new int[0]).isEmpty());
+    }
+
+    private List<Integer> naive(int word1, int word2) {
+        Set<Integer> predecessors = new HashSet<>();
+        for (int e = graph.inOffsets[word2]; e < graph.inOffsets[word2 + 1]; e++) {
+            predecessors.add(graph.inSources[e]);
+        }
+        List<Integer> bridges = new ArrayList<>();
+        for (int e = graph.offsets[word1]; e < graph.offsets[word1 + 1]; e++) {
+            if (predecessors.contains(graph.targets[e])) bridges.add(graph.targets[e]);
+        }
+        return bridges;
+    }
+
+    private List<Integer> ids(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : values) list.add(value);
+        return list;
+    }
+}
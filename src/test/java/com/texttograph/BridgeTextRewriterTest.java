@@ -0,0 +1,120 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BridgeTextRewriterTest {
+    private static final Pattern WORD = Pattern.compile("[A-Za-z]+");
+    private GraphBuilder builder;
+    private GraphSnapshot graph;
+    private String text;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        graph = builder.snapshot();
+    }
+
+    private String rewrite(String input, int threads) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            StringWriter out = new StringWriter();
+            new BridgeTextRewriter(graph, 11).rewrite(new StringReader(input), out, pool, new SplittableRandom(11));
+            return out.toString();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // 测试用例1：跨越多个块的大文档，输出与线程数无关；去掉插入的桥接词后与原文完全相同，
+    // 每个插入的词都是前后两个原词之间的桥接词
+    @Test
+    public void testStreamingRewritePreservesText() throws IOException {
+        StringBuilder input = new StringBuilder();
+        while (input.length() < 300000) {
+            input.append(text.toUpperCase()).append(",\n\t").append(text).append("... ");
+        }
+        String original = input.toString();
+        String output = rewrite(original, 1);
+        assertEquals(output, rewrite(original, 3));
+
+        List<String> originalWords = words(original);
+        StringBuilder restored = new StringBuilder();
+        Matcher matcher = WORD.matcher(output);
+        int copied = 0;
+        int next = 0;
+        int inserted = 0;
+        while (matcher.find()) {
+            if (matcher.group().equals(originalWords.get(next))) {
+                next++;
+                continue;
+            }
+            // 插入的桥接词（小写，后跟一个空格）
+            String bridge = matcher.group();
+            List<String> valid = builder.getValidBridges(originalWords.get(next - 1), originalWords.get(next));
+            assertTrue(valid.contains(bridge), bridge);
+            restored.append(output, copied, matcher.start());
+            copied = matcher.end() + 1;
+            inserted++;
+        }
+        restored.append(output.substring(copied));
+        assertEquals(originalWords.size(), next);
+        assertTrue(inserted > 0);
+        assertEquals(original, restored.toString());
+    }
+
+    // 测试用例2：批量改写文档集合
+    @Test
+    public void testRewriteFiles(@TempDir Path dir) throws IOException {
+        Path first = Files.write(dir.resolve("a.txt"), text.getBytes());
+        Path second = Files.write(dir.resolve("b.txt"), "Scientist analyzed it; the DATA.".getBytes());
+        Path output = dir.resolve("out");
+
+        long inserted = new BridgeTextRewriter(graph, 5).rewriteFiles(Arrays.asList(first, second), output);
+        assertTrue(inserted > 0);
+        long added = 0;
+        for (Path document : Arrays.asList(first, second)) {
+            String before = new String(Files.readAllBytes(document));
+            String after = new String(Files.readAllBytes(output.resolve(document.getFileName())));
+            added += words(after).size() - words(before).size();
+        }
+        assertEquals(inserted, added);
+
+        // 输出目录就是文档所在目录，或不同目录下的文档重名时拒绝，原文不被截断
+        BridgeTextRewriter rewriter = new BridgeTextRewriter(graph, 5);
+        assertThrows(IllegalArgumentException.class, () -> rewriter.rewriteFiles(Arrays.asList(first), dir));
+        assertEquals(text, new String(Files.readAllBytes(first)));
+        Path other = Files.createDirectories(dir.resolve("other"));
+        Path duplicate = Files.write(other.resolve("a.txt"), "the data".getBytes());
+        Path separate = dir.resolve("separate");
+        assertThrows(IllegalArgumentException.class,
+                () -> rewriter.rewriteFiles(Arrays.asList(first, duplicate), separate));
+        assertFalse(Files.exists(separate.resolve("a.txt")));
+    }
+
+    private static List<String> words(String s) {
+        List<String> words = new ArrayList<>();
+        Matcher matcher = WORD.matcher(s);
+        while (matcher.find()) words.add(matcher.group());
+        return words;
+    }
+}
@@ -0,0 +1,210 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphBuilderAppendTest {
+
+    // 测试用例1：分批追加与一次性构建得到相同的图和PageRank
+    @Test
+    public void testAppendMatchesFullBuild() throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get("src/test/resources/text.txt")));
+        List<String> words = TextProcessor.processText(text);
+        GraphBuilder expected = new GraphBuilder();
+        expected.buildGraph(words);
+
+        GraphBuilder actual = new GraphBuilder();
+        actual.buildGraph(words.subList(0, 5));
+        actual.appendWords(words.subList(5, 6));
+        actual.appendWords(words.subList(6, 6));
+        actual.appendWords(words.subList(6, 17));
+        actual.appendWords(words.subList(17, words.size()));
+
+        assertEquals(expected.getNodes(), actual.getNodes());
+        assertEquals(format(expected.getEdges()), format(actual.getEdges()));
+        GraphBuilder.PageRankResult expectedRank = expected.calculatePageRank(0.85, 1e-6, 100);
+        GraphBuilder.PageRankResult actualRank = actual.calculatePageRank(0.85, 1e-6, 100);
+        for (Node node : expected.getNodes()) {
+            assertEquals(expectedRank.values.get(node), actualRank.values.get(node), 1e-12);
+        }
+    }
+
+    // 测试用例2：跨批次的边不丢失，新单词可以被查询到
+    @Test
+    public void testAppendTextKeepsBoundaryEdge() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.appendText("A B");
+        assertEquals("NO_WORD2", builder.queryBridgeWords("a", "c").get(0));
+        builder.appendText("C, d");
+        assertEquals("b", builder.queryBridgeWords("a", "c").get(0));
+        assertEquals("c", builder.queryBridgeWords("b", "d").get(0));
+        assertEquals("a → b → c → d", String.join(" → ",
+                words(builder.getShortestPath("a", "d").path)));
+    }
+
+    // 测试用例3：增量PageRank只更新少量节点，结果与完整计算的误差在epsilon允许的范围内
+    @Test
+    public void testIncrementalPageRank() {
+        Random random = new Random(11);
+        GraphBuilder builder = new GraphBuilder();
+        builder.buildGraph(randomWords(random, 100000, 20000));
+        double epsilon = 1e-4;
+        // 先算得精确一些，留给增量更新的残差预算更多
+        GraphBuilder.PageRankResult previous = builder.calculatePageRank(0.85, epsilon / 10, 100);
+        assertEquals(builder.getNodes().size(), previous.touchedNodes);
+
+        builder.appendWords(randomWords(random, 10, 20000));
+        GraphBuilder.PageRankResult updated = builder.updatePageRank(previous, 0.85, epsilon, 100);
+        GraphBuilder.PageRankResult expected = builder.calculatePageRank(0.85, 1e-12, 1000);
+        assertTrue(updated.touchedNodes < builder.getNodes().size() / 10);
+        assertTrue(updated.iterations < previous.iterations);
+        assertEquals(builder.getNodes().size(), updated.values.size());
+        double error = 0;
+        for (Node node : builder.getNodes()) {
+            error += Math.abs(expected.values.get(node) - updated.values.get(node));
+        }
+        assertTrue(error < epsilon / (1 - 0.85));
+
+        // 连续的小追加：残差预算用完前只写入少量节点（在上一结果之上叠加），用完后完整重算；误差仍在界内
+        int sparseUpdates = 0;
+        for (int round = 0; round < 5; round++) {
+            builder.appendWords(randomWords(random, 3, 20000));
+            updated = builder.updatePageRank(updated, 0.85, epsilon, 100);
+            if (updated.touchedNodes < builder.getNodes().size() / 10) {
+                sparseUpdates++;
+            } else {
+                assertEquals(builder.getNodes().size(), updated.touchedNodes);
+            }
+        }
+        assertTrue(sparseUpdates >= 3);
+        expected = builder.calculatePageRank(0.85, 1e-12, 1000);
+        error = 0;
+        for (Node node : builder.getNodes()) {
+            error += Math.abs(expected.values.get(node) - updated.values.get(node));
+        }
+        assertTrue(error < epsilon / (1 - 0.85));
+
+        // 不是本图的结果时退回完整计算
+        GraphBuilder other = new GraphBuilder();
+        other.buildGraph(randomWords(new Random(11), 100000, 20000));
+        GraphBuilder.PageRankResult foreign = other.updatePageRank(updated, 0.85, epsilon, 100);
+        assertEquals(other.getNodes().size(), foreign.touchedNodes);
+    }
+
+    // 测试用例4：前k个后继和前驱按边权降序排列，追加文本后仍与按边列表排序的结果一致
+    @Test
+    public void testTopNeighborsAfterAppend() {
+        Random random = new Random(5);
+        GraphBuilder builder = new GraphBuilder();
+        builder.buildGraph(randomWords(random, 20000, 500));
+        List<String> queries = randomWords(new Random(6), 50, 500);
+        for (int round = 0; round < 3; round++) {
+            for (String word : queries) {
+                if (builder.topSuccessors(word, 1) == null) continue;
+                assertEquals(expectedTop(builder, word, 5, true), formatNeighbors(builder.topSuccessors(word, 5)));
+                assertEquals(expectedTop(builder, word, 1000, false), formatNeighbors(builder.topPredecessors(word, 1000)));
+            }
+            builder.appendWords(randomWords(random, 2000, 500));
+        }
+        assertNull(builder.topSuccessors("nosuchword", 3));
+        assertTrue(builder.topSuccessors("wa", 0).isEmpty());
+    }
+
+    // 测试用例5：只有一个单词的批次还没有节点，它的词频在之后连上边时补上
+    @Test
+    public void testSingleWordBatchKeepsTermFrequency() {
+        GraphBuilder whole = new GraphBuilder();
+        whole.appendWords(Arrays.asList("x", "y", "x"));
+        GraphBuilder split = new GraphBuilder();
+        split.appendWords(Arrays.asList("x"));
+        split.appendWords(Collections.<String>emptyList());
+        split.appendWords(Arrays.asList("y"));
+        split.appendWords(Arrays.asList("x"));
+        for (String word : Arrays.asList("x", "y")) {
+            assertEquals(frequency(whole, word), frequency(split, word));
+        }
+        assertEquals(2, frequency(split, "x"));
+
+        GraphBuilder repeated = new GraphBuilder();
+        repeated.appendWords(Arrays.asList("x"));
+        repeated.appendWords(Arrays.asList("x"));
+        assertEquals(2, frequency(repeated, "x"));
+
+        // 之后的单词批次照常累加
+        repeated.appendWords(Arrays.asList("y"));
+        repeated.appendWords(Arrays.asList("x"));
+        assertEquals(3, frequency(repeated, "x"));
+
+        // 重新构建时只统计本次文本，之前未落地的词频不再计入
+        GraphBuilder rebuilt = new GraphBuilder();
+        rebuilt.appendWords(Arrays.asList("x"));
+        rebuilt.buildGraph(Arrays.asList("y", "x"));
+        assertEquals(1, frequency(rebuilt, "x"));
+    }
+
+    private int frequency(GraphBuilder builder, String word) {
+        GraphSnapshot graph = builder.snapshot();
+        return graph.termFrequency[graph.id(word)];
+    }
+
+    private List<String> expectedTop(GraphBuilder builder, String word, int k, boolean successors) {
+        List<Edge> matching = new ArrayList<>();
+        for (Edge edge : builder.getEdges()) {
+            if ((successors ? edge.getSource() : edge.getTarget()).getWord().equals(word)) matching.add(edge);
+        }
+        // 稳定排序：权重相同的保持边的插入顺序
+        matching.sort((a, b) -> Integer.compare(b.getWeight(), a.getWeight()));
+        List<String> result = new ArrayList<>();
+        for (Edge edge : matching.subList(0, Math.min(k, matching.size()))) {
+            result.add((successors ? edge.getTarget() : edge.getSource()).getWord() + ":" + edge.getWeight());
+        }
+        return result;
+    }
+
+    private List<String> formatNeighbors(List<GraphBuilder.Neighbor> neighbors) {
+        List<String> result = new ArrayList<>();
+        for (GraphBuilder.Neighbor neighbor : neighbors) {
+            result.add(neighbor.node.getWord() + ":" + neighbor.weight);
+        }
+        return result;
+    }
+
+    private List<String> randomWords(Random random, int count, int vocabulary) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int id = (int) (Math.pow(random.nextDouble(), 2) * vocabulary);
+            StringBuilder word = new StringBuilder("w");
+            do {
+                word.append((char) ('a' + id % 26));
+                id /= 26;
+            } while (id > 0);
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private List<String> words(List<Node> path) {
+        List<String> result = new ArrayList<>();
+        path.forEach(node -> result.add(node.getWord()));
+        return result;
+    }
+
+    private List<String> format(List<Edge> edges) {
+        List<String> result = new ArrayList<>();
+        for (Edge edge : edges) {
+            result.add(edge.getSource() + "->" + edge.getTarget() + ":" + edge.getWeight());
+        }
+        return result;
+    }
+}
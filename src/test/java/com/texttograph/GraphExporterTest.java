@@ -0,0 +1,103 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphExporterTest {
+    private GraphBuilder builder;
+    private List<Node> path;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        path = builder.getShortestPath("the", "report").path;
+    }
+
+    // 测试用例1：DOT文件每个节点和每条边各一行，路径节点和路径边高亮，特殊字符被转义
+    @Test
+    public void testDotWithHighlightedPath(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("graph.dot");
+        GraphExporter.writeDot(builder.getNodes(), builder.getEdges(), file, path, "Path: the\nreport");
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+        assertEquals("strict digraph G {", lines.get(0));
+        assertEquals("}", lines.get(lines.size() - 1));
+        assertTrue(lines.contains("  label=\"Path: the\\nreport\";"));
+        assertTrue(lines.contains("  \"the\" [ color=\"red\" penwidth=\"3\" style=\"filled\" fillcolor=\"#FFF3E0\" ];"));
+        assertTrue(lines.contains("  \"team\";"));
+        int highlighted = 0;
+        int edges = 0;
+        for (String line : lines) {
+            if (!line.contains(" -> ")) continue;
+            edges++;
+            if (line.contains("penwidth=\"3\"")) highlighted++;
+        }
+        assertEquals(builder.getEdges().size(), edges);
+        assertEquals(path.size() - 1, highlighted);
+        Edge first = builder.getEdges().get(0);
+        assertTrue(lines.contains("  \"" + first.getSource() + "\" -> \"" + first.getTarget()
+                + "\" [ label=\"" + first.getWeight() + ".0\" fontsize=\"10\" color=\""
+                + (highlighted(first) ? "blue\" penwidth=\"3\" ];" : "gray\" ];")));
+
+        // 普通样式与引号转义
+        Set<Node> nodes = new LinkedHashSet<>(Arrays.asList(new Node("say \"hi\""), new Node("x\\y")));
+        List<Edge> special = new ArrayList<>();
+        special.add(new Edge(new Node("say \"hi\""), new Node("x\\y"), 2));
+        GraphExporter.writeDot(nodes, special, file, null, null);
+        assertEquals(Arrays.asList("strict digraph G {", "  \"say \\\"hi\\\"\";", "  \"x\\\\y\";",
+                "  \"say \\\"hi\\\"\" -> \"x\\\\y\" [ label=\"2.0\" fontsize=\"10\" fontcolor=\"blue\" ];", "}"),
+                Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    // 测试用例2：GraphML是合法的XML，节点、边、权重和路径标记完整
+    @Test
+    public void testGraphML(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("graph.graphml");
+        GraphExporter.writeGraphML(builder.getNodes(), builder.getEdges(), file, path);
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+
+        assertEquals(builder.getNodes().size(), document.getElementsByTagName("node").getLength());
+        NodeList edges = document.getElementsByTagName("edge");
+        assertEquals(builder.getEdges().size(), edges.getLength());
+        int total = 0;
+        int onPath = 0;
+        for (int i = 0; i < edges.getLength(); i++) {
+            NodeList data = ((Element) edges.item(i)).getElementsByTagName("data");
+            total += Integer.parseInt(data.item(0).getTextContent());
+            if (data.getLength() > 1) onPath++;
+        }
+        int expected = 0;
+        for (Edge edge : builder.getEdges()) expected += edge.getWeight();
+        assertEquals(expected, total);
+        assertEquals(path.size() - 1, onPath);
+    }
+
+    private boolean highlighted(Edge edge) {
+        for (int i = 0; i + 1 < path.size(); i++) {
+            if (path.get(i).equals(edge.getSource()) && path.get(i + 1).equals(edge.getTarget())) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.texttograph;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphRendererTest {
+
+    // 测试用例1：两个互不相连的团各自聚在一起；布局结果与线程数无关
+    @Test
+    public void testLayoutClustersAndIsDeterministic() {
+        int size = 30;
+        List<int[]> edges = new ArrayList<>();
+        for (int c = 0; c < 2; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    edges.add(new int[] {c * size + i, c * size + j});
+                }
+            }
+        }
+        int[] sources = new int[edges.size()];
+        int[] targets = new int[edges.size()];
+        int[] weights = new int[edges.size()];
+        for (int e = 0; e < sources.length; e++) {
+            sources[e] = edges.get(e)[0];
+            targets[e] = edges.get(e)[1];
+            weights[e] = 1 + e % 3;
+        }
+        ForceLayout layout = new ForceLayout(2 * size, sources, targets, weights);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            double[][] a = layout.layout(200, 7, single);
+            double[][] b = layout.layout(200, 7, several);
+            assertArrayEquals(a[0], b[0]);
+            assertArrayEquals(a[1], b[1]);
+
+            double inside = 0;
+            double between = 0;
+            int insideCount = 0;
+            int betweenCount = 0;
+            for (int u = 0; u < 2 * size; u++) {
+                for (int v = u + 1; v < 2 * size; v++) {
+                    double d = Math.hypot(a[0][u] - a[0][v], a[1][u] - a[1][v]);
+                    if (u / size == v / size) {
+                        inside += d;
+                        insideCount++;
+                    } else {
+                        between += d;
+                        betweenCount++;
+                    }
+                }
+            }
+            assertTrue(inside / insideCount * 2 < between / betweenCount);
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    // 测试用例2：无需Graphviz和显示设备即可生成PNG，路径节点为红色、路径边为蓝色
+    @Test
+    public void testRenderHighlightedPath(@TempDir Path dir) throws Exception {
+        GraphBuilder builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        List<Node> path = builder.getShortestPath("the", "report").path;
+
+        try (RenderService service = new RenderService(dir, 1, new GraphRenderer())) {
+            Path png = service.render(builder.getNodes(), builder.getEdges(), path, "Path: the → report")
+                    .get();
+            BufferedImage image = ImageIO.read(png.toFile());
+            assertNotNull(image);
+            assertTrue(image.getWidth() > 100 && image.getWidth() <= GraphRenderer.MAX_SIDE);
+            assertTrue(image.getHeight() > 100 && image.getHeight() <= GraphRenderer.MAX_SIDE);
+            assertTrue(countPixels(image, 0xFF0000) > 0);
+            assertTrue(countPixels(image, 0x0000FF) > 0);
+            // 内置渲染器不写DOT文件
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(0, files.filter(f -> f.toString().endsWith(".dot")).count());
+            }
+        }
+    }
+
+    private static int countPixels(BufferedImage image, int rgb) {
+        int count = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) & 0xFFFFFF) == rgb) count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,120 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphSnapshotTest {
+    private GraphBuilder builder;
+    private GraphSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        List<String> words = TextProcessor.processText(text);
+        builder.buildGraph(words);
+        snapshot = builder.snapshot();
+    }
+
+    // 测试用例1：CSR中的每条出边、入边都与原图的边一一对应
+    @Test
+    public void testCsrMatchesEdges() {
+        assertEquals(builder.getNodes().size(), snapshot.size());
+        assertEquals(builder.getEdges().size(), snapshot.edgeCount());
+        for (Edge edge : builder.getEdges()) {
+            int source = snapshot.id(edge.getSource().getWord());
+            int target = snapshot.id(edge.getTarget().getWord());
+            assertEquals(edge.getWeight(), weight(source, target));
+
+            boolean found = false;
+            for (int e = snapshot.inOffsets[target]; e < snapshot.inOffsets[target + 1]; e++) {
+                if (snapshot.inSources[e] == source) {
+                    assertEquals(edge.getWeight(), snapshot.inWeights[e]);
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        }
+    }
+
+    // 测试用例2：不存在的单词返回-1，快照在图变化后重建
+    @Test
+    public void testIdsAndInvalidation() {
+        assertEquals(-1, snapshot.id("unknown"));
+        assertEquals("scientist", snapshot.word(snapshot.id("scientist")));
+        assertSame(snapshot, builder.snapshot());
+
+        builder.buildGraph(TextProcessor.processText("scientist unknown"));
+        assertNotSame(snapshot, builder.snapshot());
+        assertTrue(builder.snapshot().id("unknown") >= 0);
+        // 旧快照与图共用单词表，但看不到之后加入的单词
+        assertEquals(-1, snapshot.id("unknown"));
+    }
+
+    // 测试用例4：getNodes是按加入顺序的只读视图，追加时已有单词沿用同一个Node对象
+    @Test
+    public void testNodeViewSharesNodes() {
+        Node first = builder.getNodes().iterator().next();
+        assertEquals("the", first.getWord());
+        assertTrue(builder.getNodes().contains(new Node("Report")));
+        assertThrows(UnsupportedOperationException.class, () -> builder.getNodes().add(new Node("x")));
+
+        builder.appendText("the end");
+        Node source = null;
+        for (Edge edge : builder.getEdges()) {
+            if (edge.getTarget().getWord().equals("end")) source = edge.getSource();
+        }
+        assertSame(first, source);
+        assertSame(first, builder.snapshot().node(builder.snapshot().id("the")));
+    }
+
+    // 测试用例3：PageRank结果与线程数无关，跨多个块时与单线程池逐位一致
+    @Test
+    public void testPageRankIndependentOfParallelism() {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            text.append("w").append((char) ('a' + random.nextInt(26)))
+                    .append((char) ('a' + random.nextInt(26))).append(' ');
+        }
+        GraphSnapshot large = GraphSnapshot.of(Collections.<Node>emptyList(), Collections.<Edge>emptyList(), null);
+        assertEquals(0, large.pageRank(0.85, 1e-6, 100).values.size());
+
+        GraphBuilder largeBuilder = new GraphBuilder();
+        largeBuilder.buildGraph(TextProcessor.processText(text.toString()));
+        large = largeBuilder.snapshot();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            GraphBuilder.PageRankResult expected = large.pageRank(0.85, 1e-10, 100, single);
+            GraphBuilder.PageRankResult actual = large.pageRank(0.85, 1e-10, 100, quad);
+            assertEquals(expected.iterations, actual.iterations);
+            assertEquals(expected.values, actual.values);
+            double sum = 0;
+            for (double value : actual.values.values()) sum += value;
+            assertEquals(1.0, sum, 1e-9);
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    private int weight(int source, int target) {
+        for (int e = snapshot.offsets[source]; e < snapshot.offsets[source + 1]; e++) {
+            if (snapshot.targets[e] == target) return snapshot.weights[e];
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.texttograph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedMinHeapTest {
+
+    // 测试用例1：按键升序出堆，键相同时ID小的先出
+    @Test
+    public void testPollOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(6);
+        heap.insertOrDecrease(4, 7);
+        heap.insertOrDecrease(1, 3);
+        heap.insertOrDecrease(5, 3);
+        heap.insertOrDecrease(0, 9);
+        heap.insertOrDecrease(2, 3);
+        assertEquals(5, heap.size());
+        assertEquals(3, heap.peekKey());
+
+        List<Integer> order = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            order.add(heap.poll());
+        }
+        assertEquals(Arrays.asList(1, 2, 5, 4, 0), order);
+        assertEquals(Integer.MAX_VALUE, heap.peekKey());
+    }
+
+    // 测试用例2：decrease-key只在新键更小时生效，不产生重复元素；出堆后可以重新插入
+    @Test
+    public void testDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 5);
+        heap.insertOrDecrease(1, 8);
+        heap.insertOrDecrease(2, 6);
+
+        heap.insertOrDecrease(1, 2);
+        assertEquals(3, heap.size());
+        assertEquals(2, heap.peekKey());
+        heap.insertOrDecrease(1, 10);    // 更大的键被忽略
+        assertEquals(2, heap.peekKey());
+        heap.insertOrDecrease(2, 5);     // 与0键相同，ID小的优先
+
+        assertEquals(1, heap.poll());
+        assertFalse(heap.contains(1));
+        assertEquals(0, heap.poll());
+        assertTrue(heap.contains(2));
+        heap.insertOrDecrease(1, 1);
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    // 测试用例3：随机插入和降键后，出堆顺序与按(键, ID)排序的结果一致
+    @Test
+    public void testMatchesSortedOrder() {
+        Random random = new Random(7);
+        int n = 2000;
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        int[] keys = new int[n];
+        Arrays.fill(keys, Integer.MAX_VALUE);
+        for (int i = 0; i < 10000; i++) {
+            int v = random.nextInt(n);
+            int key = random.nextInt(500);
+            heap.insertOrDecrease(v, key);
+            keys[v] = Math.min(keys[v], key);
+        }
+
+        int previous = -1;
+        int previousKey = -1;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int v = heap.poll();
+            assertTrue(keys[v] > previousKey || (keys[v] == previousKey && v > previous));
+            previous = v;
+            previousKey = keys[v];
+            count++;
+        }
+        assertEquals(Arrays.stream(keys).filter(k -> k != Integer.MAX_VALUE).count(), count);
+    }
+}
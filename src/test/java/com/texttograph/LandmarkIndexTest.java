@@ -0,0 +1,68 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarkIndexTest {
+    @TempDir
+    Path tempDir;
+    private GraphBuilder builder;
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        graph = builder.snapshot();
+    }
+
+    // 测试用例1：两种地标选择方式下，A*距离与Dijkstra一致，区间包含真实距离
+    @Test
+    public void testSearchAndBounds() {
+        for (LandmarkIndex.Selection selection : LandmarkIndex.Selection.values()) {
+            LandmarkIndex index = LandmarkIndex.build(graph, 3, selection);
+            assertEquals(3, index.landmarkCount());
+            for (int s = 0; s < graph.size(); s++) {
+                ShortestPathTree tree = ShortestPathTree.dijkstra(graph, s);
+                for (int t = 0; t < graph.size(); t++) {
+                    assertEquals(tree.distance(t), index.search(s, t).distance);
+                    LandmarkIndex.Bounds bounds = index.bounds(s, t);
+                    assertTrue(bounds.lower <= tree.distance(t));
+                    assertTrue(bounds.upper >= tree.distance(t));
+                }
+            }
+        }
+    }
+
+    // 测试用例2：保存后重新加载结果不变，图变化后拒绝加载
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        LandmarkIndex index = builder.buildLandmarkIndex(4, LandmarkIndex.Selection.FARTHEST);
+        Path file = tempDir.resolve("graph.alt");
+        index.save(file);
+
+        LandmarkIndex loaded = builder.loadLandmarkIndex(file);
+        assertEquals(index.landmarkWords(), loaded.landmarkWords());
+        assertEquals(index.sizeInBytes(), loaded.sizeInBytes());
+        for (int s = 0; s < graph.size(); s++) {
+            for (int t = 0; t < graph.size(); t++) {
+                assertEquals(index.lowerBound(s, t), loaded.lowerBound(s, t));
+                assertEquals(index.upperBound(s, t), loaded.upperBound(s, t));
+            }
+        }
+        assertEquals("SUCCESS", builder.getShortestPath("the", "report").status);
+
+        builder.appendText("report again");
+        assertNull(builder.getLandmarkIndex());
+        assertThrows(IOException.class, () -> builder.loadLandmarkIndex(file));
+    }
+}
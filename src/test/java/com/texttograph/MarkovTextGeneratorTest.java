@@ -0,0 +1,111 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarkovTextGeneratorTest {
+    private GraphBuilder builder;
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        graph = builder.snapshot();
+    }
+
+    private String generate(List<String> seeds, int tokens, int threads) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            StringWriter out = new StringWriter();
+            assertEquals((long) seeds.size() * tokens,
+                    new MarkovTextGenerator(graph, 1, 3).generate(seeds, tokens, out, pool));
+            return out.toString();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // 测试用例1：并行生成与线程数无关；相邻两词之间有边，或前一个词无出边后重新开始
+    @Test
+    public void testParallelGenerationFollowsEdges() throws IOException {
+        List<String> seeds = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            seeds.add(i % 2 == 0 ? "Scientist" : "again");
+        }
+        String output = generate(seeds, 500, 1);
+        assertEquals(output, generate(seeds, 500, 3));
+
+        String[] lines = output.split("\n");
+        assertEquals(seeds.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String[] words = lines[i].split(" ");
+            String seed = seeds.get(i).toLowerCase();
+            assertEquals(500, words.length);
+            assertEquals(seed, words[0]);
+            for (int j = 0; j + 1 < words.length; j++) {
+                int u = graph.id(words[j]);
+                int v = graph.id(words[j + 1]);
+                // 种子词本身无出边时从随机词重新开始
+                boolean restart = graph.outDegree(u) == 0
+                        && (words[j + 1].equals(seed) || graph.outDegree(graph.id(seed)) == 0);
+                assertTrue(graph.hasEdge(u, v) || restart, words[j] + " " + words[j + 1]);
+            }
+        }
+
+        // 流式单次生成与批量生成遵守相同规则
+        StringWriter single = new StringWriter();
+        assertEquals(100000, new MarkovTextGenerator(graph, 1, 3).generate("the", 100000, single));
+        assertEquals(100000, single.toString().split(" ").length);
+        assertNull(builder.generateText("nosuchword", 10, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MarkovTextGenerator(graph, 1, 3).generate(Collections.singletonList("nosuchword"), 5,
+                        new StringWriter()));
+    }
+
+    // 测试用例2：温度改变转移分布，a -> b 的概率为 3^(1/T) / (3^(1/T) + 1)
+    @Test
+    public void testTemperature() {
+        GraphBuilder small = new GraphBuilder();
+        small.buildGraph(TextProcessor.processText("a b a b a b a c a"));
+        for (double temperature : new double[]{1, 0.25, 4}) {
+            String[] words = new MarkovTextGenerator(small.snapshot(), temperature, 9)
+                    .generate("a", 200001).split(" ");
+            int fromA = 0;
+            int toB = 0;
+            for (int i = 0; i + 1 < words.length; i++) {
+                if (!words[i].equals("a")) continue;
+                fromA++;
+                if (words[i + 1].equals("b")) toB++;
+            }
+            double expected = Math.pow(3, 1 / temperature) / (Math.pow(3, 1 / temperature) + 1);
+            assertEquals(expected, (double) toB / fromA, 0.01, "T=" + temperature);
+        }
+    }
+
+    // 测试用例3：同一温度重复生成复用缓存；追加文本后缓存失效，生成使用新边
+    @Test
+    public void testGeneratorCacheFollowsGraph() {
+        GraphBuilder small = new GraphBuilder();
+        small.buildGraph(TextProcessor.processText("a b c"));
+        for (double temperature : new double[]{1, 0.5, 0.5}) {
+            assertEquals("a b c", small.generateText("a", 3, temperature));
+        }
+        small.appendText("d");
+        for (double temperature : new double[]{1, 0.5}) {
+            assertEquals("b c d", small.generateText("b", 3, temperature));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelCorpusLoaderTest {
+    @TempDir
+    Path tempDir;
+
+    // 测试用例1：切成很多小块并行导入，结果与单线程构建一致
+    @Test
+    public void testSmallChunksMatchBuildGraph() throws IOException {
+        Path path = Paths.get("src/test/resources/text.txt");
+        for (long chunkSize = 1; chunkSize <= 64; chunkSize *= 2) {
+            assertSameGraph(path, chunkSize);
+        }
+    }
+
+    // 测试用例2：块内只有分隔符、单词跨越缓冲区等边界情况
+    @Test
+    public void testChunkBoundaries() throws IOException {
+        Path path = tempDir.resolve("corpus.txt");
+        Files.write(path, "The  ,,, cat\r\n\r\n sat... ON the mat; the CAT sat!".getBytes(StandardCharsets.UTF_8));
+        for (long chunkSize = 1; chunkSize <= 16; chunkSize++) {
+            assertSameGraph(path, chunkSize);
+        }
+    }
+
+    // 测试用例3：非ASCII内容。UTF-8下按字节切词与按字符切词一致；GBK中汉字的第二个字节可能是
+    // ASCII字母，必须退回按字符解码的流式构建
+    @Test
+    public void testNonAsciiContent() throws IOException {
+        String text = "naïve café über the 中文 cat, 汉字 sat; Zürich the cat";
+        Path utf8 = tempDir.resolve("utf8.txt");
+        Files.write(utf8, text.getBytes(StandardCharsets.UTF_8));
+        for (long chunkSize = 1; chunkSize <= 16; chunkSize++) {
+            assertSameGraph(utf8, chunkSize, StandardCharsets.UTF_8);
+        }
+
+        Charset gbk = Charset.forName("GBK");
+        assertFalse(ParallelCorpusLoader.isByteCompatible(gbk));
+        assertTrue(ParallelCorpusLoader.isByteCompatible(StandardCharsets.ISO_8859_1));
+        Path encoded = tempDir.resolve("gbk.txt");
+        // “丟”“両”在GBK中编码为0x81 'G'和0x81 'I'，按字节扫描会多出单词
+        Files.write(encoded, "the 丟両 cat 丟 the".getBytes(gbk));
+        for (long chunkSize = 1; chunkSize <= 4; chunkSize++) {
+            assertSameGraph(encoded, chunkSize, gbk);
+        }
+    }
+
+    private void assertSameGraph(Path path, long chunkSize) throws IOException {
+        assertSameGraph(path, chunkSize, Charset.defaultCharset());
+    }
+
+    private void assertSameGraph(Path path, long chunkSize, Charset charset) throws IOException {
+        GraphBuilder expected = new GraphBuilder();
+        expected.buildGraph(TextProcessor.processText(new String(Files.readAllBytes(path), charset)));
+        GraphBuilder actual = new GraphBuilder();
+        ParallelCorpusLoader.load(actual, path, ForkJoinPool.commonPool(), chunkSize, charset);
+
+        assertEquals(expected.getNodes(), actual.getNodes());
+        assertEquals(format(expected.getEdges()), format(actual.getEdges()));
+    }
+
+    private List<String> format(List<Edge> edges) {
+        List<String> result = new ArrayList<>();
+        for (Edge edge : edges) {
+            result.add(edge.getSource() + "->" + edge.getTarget() + ":" + edge.getWeight());
+        }
+        return result;
+    }
+}
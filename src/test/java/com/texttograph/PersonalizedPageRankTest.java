@@ -0,0 +1,125 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersonalizedPageRankTest {
+    private static final double D = 0.85;
+    private GraphBuilder builder;
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        graph = builder.snapshot();
+    }
+
+    // 测试用例1：推送结果与稠密幂迭代一致，按分数从高到低排列
+    @Test
+    public void testPushMatchesPowerIteration() {
+        Map<String, Double> seeds = new HashMap<>();
+        seeds.put("scientist", 2.0);
+        seeds.put("report", 1.0);
+        PersonalizedPageRank.Result result = builder.personalizedPageRank(
+                seeds, D, graph.size(), PersonalizedPageRank.Mode.PUSH, 1e-10);
+        double[] expected = powerIteration(new int[]{graph.id("scientist"), graph.id("report")},
+                new double[]{2.0 / 3, 1.0 / 3});
+
+        assertEquals(graph.size(), result.top.size());
+        double total = 0;
+        for (int i = 0; i < result.top.size(); i++) {
+            PersonalizedPageRank.Score score = result.top.get(i);
+            assertEquals(expected[graph.id(score.node.getWord())], score.value, 1e-8);
+            if (i > 0) assertTrue(result.top.get(i - 1).value >= score.value);
+            total += score.value;
+        }
+        assertEquals(1.0, total, 1e-8);
+        assertEquals(3, builder.personalizedPageRank("scientist", D, 3,
+                PersonalizedPageRank.Mode.PUSH, 1e-6).top.size());
+        assertNull(builder.personalizedPageRank("unknown", D, 3, PersonalizedPageRank.Mode.PUSH, 1e-6));
+    }
+
+    // 测试用例2：蒙特卡洛估计在误差范围内，且与线程数无关
+    @Test
+    public void testMonteCarlo() {
+        int seed = graph.id("the");
+        double[] expected = powerIteration(new int[]{seed}, new double[]{1});
+        PersonalizedPageRank ppr = new PersonalizedPageRank(graph, new int[]{seed}, new double[]{1});
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool triple = new ForkJoinPool(3);
+        try {
+            double accuracy = 0.005;
+            PersonalizedPageRank.Result a = ppr.compute(D, 5, PersonalizedPageRank.Mode.MONTE_CARLO, accuracy, single);
+            PersonalizedPageRank.Result b = ppr.compute(D, 5, PersonalizedPageRank.Mode.MONTE_CARLO, accuracy, triple);
+            assertEquals(5, a.top.size());
+            assertEquals(a.work, b.work);
+            for (int i = 0; i < a.top.size(); i++) {
+                PersonalizedPageRank.Score score = a.top.get(i);
+                assertSame(score.node, b.top.get(i).node);
+                assertEquals(score.value, b.top.get(i).value);
+                // 标准差不超过accuracy / 2，取5倍
+                assertEquals(expected[graph.id(score.node.getWord())], score.value, 2.5 * accuracy);
+            }
+        } finally {
+            single.shutdown();
+            triple.shutdown();
+        }
+    }
+
+    // 测试用例3：精度不为正或阻尼系数不在[0, 1)内时抛出IllegalArgumentException
+    @Test
+    public void testInvalidArguments() {
+        PersonalizedPageRank ppr = new PersonalizedPageRank(graph, new int[]{graph.id("the")}, new double[]{1});
+        for (PersonalizedPageRank.Mode mode : PersonalizedPageRank.Mode.values()) {
+            assertThrows(IllegalArgumentException.class, () -> ppr.compute(D, 3, mode, 0));
+            assertThrows(IllegalArgumentException.class, () -> ppr.compute(D, 3, mode, -1e-6));
+            assertThrows(IllegalArgumentException.class, () -> ppr.compute(D, 3, mode, Double.NaN));
+            assertThrows(IllegalArgumentException.class, () -> ppr.compute(1.0, 3, mode, 1e-3));
+            assertThrows(IllegalArgumentException.class, () -> ppr.compute(-0.1, 3, mode, 1e-3));
+            assertThrows(IllegalArgumentException.class, () -> ppr.compute(Double.NaN, 3, mode, 1e-3));
+        }
+        assertThrows(IllegalArgumentException.class, () -> builder.personalizedPageRank(
+                "the", 1.5, 3, PersonalizedPageRank.Mode.PUSH, 1e-6));
+        // d = 0 时分数全部留在种子上
+        PersonalizedPageRank.Result result = ppr.compute(0, 3, PersonalizedPageRank.Mode.PUSH, 1e-6);
+        assertEquals("the", result.top.get(0).node.getWord());
+        assertEquals(1.0, result.top.get(0).value, 1e-12);
+    }
+
+    // 稠密幂迭代：悬挂节点和随机跳转都回到种子分布
+    private double[] powerIteration(int[] seeds, double[] weights) {
+        int n = graph.size();
+        double[] teleport = new double[n];
+        for (int i = 0; i < seeds.length; i++) teleport[seeds[i]] += weights[i];
+        double[] rank = teleport.clone();
+        for (int iter = 0; iter < 500; iter++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                if (graph.outDegree(u) == 0) {
+                    dangling += rank[u];
+                    continue;
+                }
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    next[graph.targets[e]] += D * rank[u] / graph.outDegree(u);
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                next[v] += ((1 - D) + D * dangling) * teleport[v];
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,190 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomWalkEngineTest {
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        GraphBuilder builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        graph = builder.snapshot();
+    }
+
+    private String walks(long count, int threads) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            StringWriter out = new StringWriter();
+            new RandomWalkEngine(graph, 7).writeWalks(count, out, pool, null);
+            return out.toString();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // 测试用例1：同一种子在不同线程数下输出相同，每次游走都遵守游走规则
+    @Test
+    public void testDeterministicAndValidWalks() throws IOException {
+        long count = 10000;   // 跨越多个批次
+        String single = walks(count, 1);
+        assertEquals(single, walks(count, 3));
+
+        String[] lines = single.split("\n");
+        assertEquals(count, lines.length);
+        for (String line : lines) {
+            String[] words = line.split(" ");
+            Set<String> used = new HashSet<>();
+            boolean repeated = false;
+            for (int i = 0; i + 1 < words.length; i++) {
+                int u = graph.id(words[i]);
+                int v = graph.id(words[i + 1]);
+                assertTrue(hasEdge(u, v), words[i] + " -> " + words[i + 1]);
+                assertFalse(repeated, "重复边之后不应继续游走: " + line);
+                repeated = !used.add(words[i] + " " + words[i + 1]);
+            }
+            // 结束于重复边或无出边的节点
+            assertTrue(repeated || graph.outDegree(graph.id(words[words.length - 1])) == 0, line);
+        }
+    }
+
+    // 测试用例2：最大长度限制与GZIP压缩输出
+    @Test
+    public void testMaxLengthAndCompressedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("walks.txt.gz");
+        long words = new RandomWalkEngine(graph, 7, 2).writeWalks(500, file, true);
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) lines.add(line);
+        }
+        assertEquals(500, lines.size());
+        long total = 0;
+        for (String line : lines) {
+            int length = line.split(" ").length;
+            assertTrue(length >= 1 && length <= 3, line);
+            total += length;
+        }
+        assertEquals(words, total);
+    }
+
+    // 测试用例3：别名表与前缀二分查找的抽样频率符合边权，node2vec偏置与有序邻接查询正确
+    @Test
+    public void testWeightedAndBiasedSampling() {
+        // a -> b 权重为3，a -> c ... j 权重为1，a的出度超过直接扫描的阈值
+        GraphBuilder builder = new GraphBuilder();
+        builder.buildGraph(TextProcessor.processText(
+                "a b a b a b a c a d a e a f a g a h a i a j"));
+        GraphSnapshot small = builder.snapshot();
+        int a = small.id("a");
+        int b = small.id("b");
+        int draws = 200000;
+
+        for (long maxEntries : new long[]{AliasTables.DEFAULT_MAX_ENTRIES, 0}) {
+            AliasTables tables = new AliasTables(small, maxEntries);
+            SplittableRandom random = new SplittableRandom(1);
+            int toB = 0;
+            for (int i = 0; i < draws; i++) {
+                if (small.targets[tables.sample(a, random)] == b) toB++;
+            }
+            assertEquals(3.0 / 11, (double) toB / draws, 0.01);
+            assertEquals(maxEntries == 0 ? 0 : small.outDegree(a), tables.cachedEntries());
+
+            // 温度0.5时边权平方：a -> b 为9，其余为1
+            AliasTables sharpened = new AliasTables(small, maxEntries, 0.5);
+            toB = 0;
+            for (int i = 0; i < draws; i++) {
+                if (small.targets[sharpened.sample(a, random)] == b) toB++;
+            }
+            assertEquals(9.0 / 17, (double) toB / draws, 0.01);
+        }
+
+        // 从b走到a后，p很小时几乎总是返回b：概率为 3 * 100 / (3 * 100 + 8)
+        WalkSampler sampler = new WalkSampler(small, true, 0.01, 1);
+        SplittableRandom random = new SplittableRandom(2);
+        int back = 0;
+        for (int i = 0; i < draws; i++) {
+            if (small.targets[sampler.next(b, a, random)] == b) back++;
+        }
+        assertEquals(300.0 / 308, (double) back / draws, 0.01);
+
+        for (int u = 0; u < graph.size(); u++) {
+            for (int v = 0; v < graph.size(); v++) {
+                assertEquals(hasEdge(u, v), graph.hasEdge(u, v));
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new RandomWalkEngine(graph, 7, 10, true, 0, 1));
+    }
+
+    // 测试用例：上限按出度从大到小分配给别名表，与抽样顺序无关；剩余的上限给累计权重表，
+    // 用完后退回扫描，缓存的条目总数不超过上限
+    @Test
+    public void testAliasTablesAdmitByDegree() {
+        // ha、ma、la 分别有20、10、9个不同的后继
+        StringBuilder text = new StringBuilder();
+        String[] heads = {"ha", "ma", "la"};
+        int[] degrees = {20, 10, 9};
+        for (int h = 0; h < heads.length; h++) {
+            for (int i = 0; i < degrees[h]; i++) {
+                text.append(heads[h]).append(" w").append((char) ('a' + i)).append(' ');
+            }
+        }
+        GraphBuilder builder = new GraphBuilder();
+        builder.buildGraph(TextProcessor.processText(text.toString()));
+        GraphSnapshot small = builder.snapshot();
+        int[] ids = {small.id("ha"), small.id("ma"), small.id("la")};
+
+        // 上限29：ha的别名表占20，ma放不下，la的累计权重表正好用完剩下的9
+        AliasTables tables = new AliasTables(small, 29);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int h = heads.length - 1; h >= 0; h--) {
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i < 2000; i++) {
+                int e = tables.sample(ids[h], random);
+                assertTrue(e >= small.offsets[ids[h]] && e < small.offsets[ids[h] + 1]);
+                seen.add(e);
+            }
+            assertEquals(degrees[h], seen.size());
+        }
+        assertEquals(29, tables.cachedEntries());
+
+        // 上限20只够ha：先抽样的小节点退回扫描，不会占用ha的位置
+        AliasTables tight = new AliasTables(small, 20);
+        tight.sample(ids[2], random);
+        tight.sample(ids[1], random);
+        assertEquals(0, tight.cachedEntries());
+        tight.sample(ids[0], random);
+        assertEquals(20, tight.cachedEntries());
+    }
+
+    private boolean hasEdge(int u, int v) {
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+            if (graph.targets[e] == v) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package com.texttograph;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderServiceTest {
+    private GraphBuilder builder;
+    private List<Node> path;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+        path = builder.getShortestPath("the", "report").path;
+    }
+
+    // 测试用例1：相同内容的请求只渲染一次，完成后直接从磁盘缓存返回；高亮路径不同则重新渲染。
+    // 内容哈希在工作线程中计算，不在调用线程中遍历图
+    @Test
+    public void testDeduplicationAndCache(@TempDir Path dir) throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<Thread> hashingThreads = ConcurrentHashMap.newKeySet();
+        Collection<Node> nodes = new AbstractCollection<Node>() {
+            @Override
+            public Iterator<Node> iterator() {
+                hashingThreads.add(Thread.currentThread());
+                return builder.getNodes().iterator();
+            }
+
+            @Override
+            public int size() {
+                return builder.getNodes().size();
+            }
+        };
+        try (RenderService service = new RenderService(dir, 2, (request, png) -> {
+            renders.incrementAndGet();
+            started.countDown();
+            release.await();
+            Files.copy(request.dot(), png, StandardCopyOption.REPLACE_EXISTING);
+        })) {
+            CompletableFuture<Path> first = service.render(nodes, builder.getEdges(), null, null);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Path> second = service.render(nodes, builder.getEdges(), null, null);
+            assertEquals(1, service.pendingCount());
+            release.countDown();
+
+            Path png = first.get(10, TimeUnit.SECONDS);
+            assertEquals(png, second.get(10, TimeUnit.SECONDS));
+            assertFalse(hashingThreads.contains(Thread.currentThread()));
+            assertEquals(dir, png.getParent());
+            assertTrue(new String(Files.readAllBytes(png), "UTF-8").startsWith("strict digraph G {"));
+            assertEquals(1, renders.get());
+
+            CompletableFuture<Path> cached = service.render(builder.getNodes(), builder.getEdges(), null, null);
+            assertEquals(png, cached.get(10, TimeUnit.SECONDS));
+            assertEquals(1, renders.get());
+            assertEquals(0, service.pendingCount());
+
+            Path highlighted = service.render(builder.getNodes(), builder.getEdges(), path, "Path")
+                    .get(10, TimeUnit.SECONDS);
+            assertNotEquals(png, highlighted);
+            assertEquals(2, renders.get());
+        }
+    }
+
+    // 测试用例2：取消会中断正在进行的渲染，缓存中不留下文件，之后可以重新提交
+    @Test
+    public void testCancellation(@TempDir Path dir) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        try (RenderService service = new RenderService(dir, 1, (request, png) -> {
+            if (renders.incrementAndGet() == 1) {
+                started.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            }
+            Files.write(png, new byte[] {1});
+        })) {
+            CompletableFuture<Path> future = service.render(builder.getNodes(), builder.getEdges(), path, "Path");
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertTrue(future.cancel(true));
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+            assertEquals(0, service.pendingCount());
+
+            CompletableFuture<Path> retry = service.render(builder.getNodes(), builder.getEdges(), path, "Path");
+            assertNotSame(future, retry);
+            Path png = retry.get(10, TimeUnit.SECONDS);
+            assertArrayEquals(new byte[] {1}, Files.readAllBytes(png));
+            assertEquals(2, renders.get());
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(0, files.filter(f -> f.toString().endsWith(".tmp")).count());
+            }
+        }
+    }
+
+    // 测试用例3：渲染者被取消后，仍在等待同一内容的请求重新渲染并正常完成
+    @Test
+    public void testFollowerSurvivesOwnerCancellation(@TempDir Path dir) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        try (RenderService service = new RenderService(dir, 2, (request, png) -> {
+            if (renders.incrementAndGet() == 1) {
+                started.countDown();
+                Thread.sleep(60_000);
+            }
+            Files.write(png, new byte[] {2});
+        })) {
+            CompletableFuture<Path> owner = service.render(builder.getNodes(), builder.getEdges(), null, null);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Path> follower = service.render(builder.getNodes(), builder.getEdges(), null, null);
+            // 等跟随者挂到渲染者上（算出哈希）后再取消
+            Thread.sleep(200);
+            assertTrue(owner.cancel(true));
+
+            Path png = follower.get(10, TimeUnit.SECONDS);
+            assertArrayEquals(new byte[] {2}, Files.readAllBytes(png));
+            assertEquals(2, renders.get());
+        }
+    }
+
+    // 测试用例4：缓存超过上限时删除最久未使用的条目，命中会更新使用时间
+    @Test
+    public void testCacheEviction(@TempDir Path dir) throws Exception {
+        try (RenderService service = new RenderService(dir, 1,
+                (request, png) -> Files.write(png, new byte[] {1, 2, 3, 4}), 10)) {
+            Path a = service.render(builder.getNodes(), builder.getEdges(), null, "a").get(10, TimeUnit.SECONDS);
+            Thread.sleep(20);
+            Path b = service.render(builder.getNodes(), builder.getEdges(), path, "b").get(10, TimeUnit.SECONDS);
+            Thread.sleep(20);
+            assertEquals(a, service.render(builder.getNodes(), builder.getEdges(), null, "a")
+                    .get(10, TimeUnit.SECONDS));
+            Thread.sleep(20);
+            Path c = service.render(builder.getNodes(), builder.getEdges(), path, "c").get(10, TimeUnit.SECONDS);
+
+            assertTrue(Files.exists(a));
+            assertFalse(Files.exists(b));
+            assertTrue(Files.exists(c));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.texttograph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// 单源最短路径引擎随线程数的扩展性测试（不是单元测试，surefire不会运行）。
+// 在固定种子生成的语料上，对每个线程数分别用该大小的ForkJoinPool运行各引擎：
+// 并行流在哪个池中被调用就使用哪个池，因此delta-stepping的并行松弛只使用这些线程。
+// 运行方式（先执行 mvn test-compile）：
+//   java -cp target/classes:target/test-classes com.texttograph.ShortestPathBenchmark [单词数] [起点数] [最大线程数]
+public class ShortestPathBenchmark {
+    private static final int VOCABULARY = 50000;
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        int words = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int sources = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        GraphSnapshot graph = corpus(words, 42).snapshot();
+        int[] starts = new int[sources];
+        Random random = new Random(7);
+        for (int i = 0; i < sources; i++) {
+            starts[i] = random.nextInt(graph.size());
+        }
+        System.out.printf("顶点 %d，边 %d，起点 %d，可用处理器 %d%n",
+                graph.size(), graph.edgeCount(), sources, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-16s %8s %12s %8s%n", "引擎", "线程数", "毫秒/起点", "加速比");
+
+        for (ShortestPathTree.Engine engine : ShortestPathTree.Engine.values()) {
+            // 先在最大线程数下预热一遍，避免JIT编译计入线程数为1的结果
+            measure(graph, starts, engine, maxThreads);
+            double base = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double millis = measure(graph, starts, engine, threads);
+                if (threads == 1) base = millis;
+                System.out.printf("%-16s %8d %12.2f %8.2f%n", engine, threads, millis, base / millis);
+                // 单线程引擎只测一次
+                if (engine != ShortestPathTree.Engine.DELTA_STEPPING) break;
+            }
+        }
+    }
+
+    // 每个起点的平均耗时；结果与Dijkstra比对，防止计算被优化掉或结果出错
+    private static double measure(GraphSnapshot graph, int[] starts, ShortestPathTree.Engine engine, int threads)
+            throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                run(pool, graph, starts, engine);
+            }
+            long begin = System.nanoTime();
+            long checksum = run(pool, graph, starts, engine);
+            double millis = (System.nanoTime() - begin) / 1e6 / starts.length;
+            long expected = 0;
+            for (int source : starts) {
+                expected += checksum(ShortestPathTree.dijkstra(graph, source));
+            }
+            if (checksum != expected) {
+                throw new IllegalStateException(engine + " 的结果与Dijkstra不一致");
+            }
+            return millis;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long run(ForkJoinPool pool, GraphSnapshot graph, int[] starts, ShortestPathTree.Engine engine)
+            throws Exception {
+        return pool.submit(() -> {
+            long sum = 0;
+            for (int source : starts) {
+                sum += checksum(ShortestPathTree.compute(graph, source, engine));
+            }
+            return sum;
+        }).get();
+    }
+
+    private static long checksum(ShortestPathTree tree) {
+        return Arrays.hashCode(tree.dist) * 31L + Arrays.hashCode(tree.parent);
+    }
+
+    // 近似Zipf分布的语料：单词排名按对数均匀分布，少数高频词连接大部分边
+    static GraphBuilder corpus(int words, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            int rank = (int) Math.pow(VOCABULARY, random.nextDouble()) - 1;
+            // 排名按26进制写成字母，不同排名对应不同单词
+            text.append('w');
+            do {
+                text.append((char) ('a' + rank % 26));
+                rank /= 26;
+            } while (rank > 0);
+            text.append(' ');
+        }
+        GraphBuilder builder = new GraphBuilder();
+        builder.buildGraph(TextProcessor.processText(text.toString()));
+        return builder;
+    }
+}
@@ -0,0 +1,188 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathTreeTest {
+    private GraphBuilder builder;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        builder = new GraphBuilder();
+        String text = new String(Files.readAllBytes(
+                Paths.get("src/test/resources/text.txt")));
+        builder.buildGraph(TextProcessor.processText(text));
+    }
+
+    // 测试用例1：一棵最短路径树给出的结果与逐对查询一致
+    @Test
+    public void testTreeMatchesPairQueries() {
+        for (Node start : builder.getNodes()) {
+            ShortestPathTree tree = builder.shortestPathsFrom(start.getWord());
+            for (Node end : builder.getNodes()) {
+                GraphBuilder.PathResult pr = builder.getShortestPath(start.getWord(), end.getWord());
+                int target = tree.graph().id(end.getWord());
+                if (pr.status.equals("NO_PATH")) {
+                    assertFalse(tree.isReachable(target));
+                } else {
+                    assertEquals(pr.totalWeight, tree.distance(target));
+                    assertEquals(pr.path, tree.path(target));
+                }
+            }
+        }
+        assertNull(builder.shortestPathsFrom("unknown"));
+    }
+
+    // 测试用例2：双向Dijkstra与单源Dijkstra的距离一致，路径合法
+    @Test
+    public void testBidirectionalMatchesDijkstra() {
+        GraphSnapshot graph = builder.snapshot();
+        for (int s = 0; s < graph.size(); s++) {
+            ShortestPathTree tree = ShortestPathTree.dijkstra(graph, s);
+            for (int t = 0; t < graph.size(); t++) {
+                SearchResult result = BidirectionalDijkstra.search(graph, s, t);
+                assertEquals(tree.distance(t), result.distance);
+                if (tree.isReachable(t)) {
+                    assertEquals(result.distance, pathWeight(graph, result.path));
+                    assertEquals(graph.node(s), result.path.get(0));
+                    assertEquals(graph.node(t), result.path.get(result.path.size() - 1));
+                } else {
+                    assertTrue(result.path.isEmpty());
+                }
+            }
+        }
+    }
+
+    // 测试用例3：缓存命中返回同一棵树，图变化后缓存失效
+    @Test
+    public void testCacheInvalidation() {
+        ShortestPathTree tree = builder.shortestPathsFrom("again");
+        assertSame(tree, builder.shortestPathsFrom("again"));
+        assertTrue(tree.path("scientist").isEmpty());
+
+        builder.appendText("the scientist");
+        ShortestPathTree updated = builder.shortestPathsFrom("again");
+        assertNotSame(tree, updated);
+        assertEquals("again → the → scientist", format(updated.path("scientist")));
+    }
+
+    // 测试用例4：Dial与delta-stepping的距离和前驱与Dijkstra完全一致（含足以触发并行松弛的大图）
+    @Test
+    public void testEnginesMatchDijkstra() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            int word = (int) Math.abs(random.nextGaussian() * 1500) % 6000;
+            text.append('w').append(Integer.toString(word, 26).replaceAll("[0-9]", "x")).append(' ');
+        }
+        GraphBuilder large = new GraphBuilder();
+        large.buildGraph(TextProcessor.processText(text.toString()));
+
+        for (GraphSnapshot graph : new GraphSnapshot[]{builder.snapshot(), large.snapshot()}) {
+            for (int s = 0; s < graph.size(); s += Math.max(1, graph.size() / 20)) {
+                ShortestPathTree expected = ShortestPathTree.dijkstra(graph, s);
+                List<ShortestPathTree> trees = new ArrayList<>();
+                trees.add(ShortestPathTree.compute(graph, s, ShortestPathTree.Engine.DIAL));
+                trees.add(ShortestPathTree.compute(graph, s, ShortestPathTree.Engine.DELTA_STEPPING));
+                trees.add(DeltaStepping.deltaStepping(graph, s, 1));
+                trees.add(DeltaStepping.deltaStepping(graph, s, 3));
+                for (ShortestPathTree tree : trees) {
+                    assertArrayEquals(expected.dist, tree.dist);
+                    assertArrayEquals(expected.parent, tree.parent);
+                }
+            }
+        }
+
+        builder.setShortestPathEngine(ShortestPathTree.Engine.DELTA_STEPPING);
+        GraphBuilder.PathResult pr = builder.getShortestPath("the", "report");
+        assertEquals("SUCCESS", pr.status);
+        assertEquals(ShortestPathTree.dijkstra(builder.snapshot(), builder.snapshot().id("the"))
+                .path("report"), pr.path);
+    }
+
+    // 测试用例5：手工构造的图上检查Dijkstra的距离、前驱和等长路径的取舍
+    @Test
+    public void testDijkstraOnSmallGraph() {
+        List<Node> nodes = new ArrayList<>();
+        for (String word : new String[]{"a", "b", "c", "d", "e", "f"}) {
+            nodes.add(new Node(word));
+        }
+        // a -> d 先以3入堆，经b松弛后降为2；a→b→d 与 a→c→d 等长，ID小的b先出堆，前驱取b
+        List<Edge> edges = Arrays.asList(
+                new Edge(nodes.get(0), nodes.get(3), 3),
+                new Edge(nodes.get(0), nodes.get(2), 1),
+                new Edge(nodes.get(0), nodes.get(1), 1),
+                new Edge(nodes.get(2), nodes.get(3), 1),
+                new Edge(nodes.get(1), nodes.get(3), 1),
+                new Edge(nodes.get(3), nodes.get(4), 2),
+                new Edge(nodes.get(4), nodes.get(0), 1));
+        GraphSnapshot graph = GraphSnapshot.of(nodes, edges, null);
+
+        ShortestPathTree tree = ShortestPathTree.dijkstra(graph, 0);
+        assertArrayEquals(new int[]{0, 1, 1, 2, 4, GraphSnapshot.UNREACHABLE}, tree.dist);
+        assertArrayEquals(new int[]{-1, 0, 0, 1, 3, -1}, tree.parent);
+        assertEquals("a → b → d → e", format(tree.path("e")));
+        assertTrue(tree.path("f").isEmpty());
+
+        // 指定目标时在目标出堆后停止，目标的结果已确定
+        ShortestPathTree partial = ShortestPathTree.dijkstra(graph, 0, 3);
+        assertEquals(2, partial.distance(3));
+        assertEquals(1, partial.parent(3));
+
+        ShortestPathTree fromE = ShortestPathTree.dijkstra(graph, 4);
+        assertArrayEquals(new int[]{1, 2, 2, 3, 0, GraphSnapshot.UNREACHABLE}, fromE.dist);
+    }
+
+    // 测试用例6：多线程并发查询同一起点，缓存中只保留一棵树，所有调用方拿到同一对象
+    @Test
+    public void testConcurrentQueriesShareOneTree() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ShortestPathTree>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> builder.shortestPathsFrom("the")));
+            }
+            ShortestPathTree cached = builder.shortestPathsFrom("the");
+            for (Future<ShortestPathTree> future : futures) {
+                assertSame(cached, future.get());
+            }
+            assertSame(cached, builder.shortestPathsFrom("the"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int pathWeight(GraphSnapshot graph, List<Node> path) {
+        int total = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int u = graph.id(path.get(i).getWord());
+            int v = graph.id(path.get(i + 1).getWord());
+            int weight = -1;
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                if (graph.targets[e] == v) weight = graph.weights[e];
+            }
+            assertTrue(weight > 0);
+            total += weight;
+        }
+        return total;
+    }
+
+    private String format(List<Node> path) {
+        return path.stream().map(Node::getWord).collect(Collectors.joining(" → "));
+    }
+}
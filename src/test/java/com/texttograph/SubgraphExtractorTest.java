@@ -0,0 +1,140 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import com.texttograph.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubgraphExtractorTest {
+    private GraphBuilder builder;
+    private GraphSnapshot graph;
+
+    @BeforeEach
+    public void setUp() {
+        Random random = new Random(2);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            words.add("w" + (int) (Math.pow(random.nextDouble(), 2) * 3000));
+        }
+        builder = new GraphBuilder();
+        builder.buildGraph(words);
+        graph = builder.snapshot();
+    }
+
+    // 测试用例1：k跳邻域不超出预算，节点都在k跳以内（不计方向），边都在选中节点之间
+    @Test
+    public void testKHopWithinBudget() {
+        int center = graph.id("w100");
+        int[] hops = undirectedHops(center);
+        SubgraphExtractor.Subgraph small = SubgraphExtractor.kHop(graph, center, 2, 200, 500);
+        assertTrue(small.truncated);
+        assertEquals(200, small.nodes.size());
+        assertTrue(small.edges.size() <= 500);
+        assertTrue(small.nodes.contains(new Node("w100")));
+        for (Node node : small.nodes) {
+            assertTrue(hops[graph.id(node.getWord())] <= 2);
+        }
+        assertInduced(small);
+
+        // 预算足够时恰好是全部1跳邻居及其之间的边
+        SubgraphExtractor.Subgraph full = SubgraphExtractor.kHop(graph, center, 1, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertFalse(full.truncated);
+        int expected = 0;
+        for (int hop : hops) {
+            if (hop <= 1) expected++;
+        }
+        assertEquals(expected, full.nodes.size());
+        int edges = 0;
+        for (Edge edge : builder.getEdges()) {
+            if (full.nodes.contains(edge.getSource()) && full.nodes.contains(edge.getTarget())) edges++;
+        }
+        assertEquals(edges, full.edges.size());
+    }
+
+    // 测试用例2：路径及其边在预算很小时也保留；PageRank前N个节点；边权最大的边
+    @Test
+    public void testPathTopNodesAndTopEdges() {
+        List<Node> path = builder.getShortestPath("w2999", "w0").path;
+        assertTrue(path.size() > 1);
+        int[] ids = new int[path.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = graph.id(path.get(i).getWord());
+        SubgraphExtractor.Subgraph context = SubgraphExtractor.pathContext(graph, ids, 3, 20, path.size() - 1);
+        assertTrue(context.nodes.containsAll(path));
+        assertTrue(context.nodes.size() <= Math.max(20, path.size()));
+        assertEquals(path.size() - 1, context.edges.size());
+        for (int i = 0; i + 1 < path.size(); i++) {
+            assertTrue(containsEdge(context.edges, path.get(i), path.get(i + 1)));
+        }
+
+        Map<Node, Double> ranks = builder.calculatePageRank(0.85, 1e-6, 100).values;
+        SubgraphExtractor.Subgraph top = SubgraphExtractor.topNodes(graph, ranks, 50, 1000);
+        assertEquals(50, top.nodes.size());
+        double lowest = Double.MAX_VALUE;
+        for (Node node : top.nodes) lowest = Math.min(lowest, ranks.get(node));
+        for (Map.Entry<Node, Double> entry : ranks.entrySet()) {
+            if (!top.nodes.contains(entry.getKey())) assertTrue(entry.getValue() <= lowest);
+        }
+        assertInduced(top);
+
+        SubgraphExtractor.Subgraph heavy = SubgraphExtractor.topEdges(graph, 100, Integer.MAX_VALUE);
+        assertEquals(100, heavy.edges.size());
+        int lightest = Integer.MAX_VALUE;
+        for (Edge edge : heavy.edges) lightest = Math.min(lightest, edge.getWeight());
+        for (Edge edge : builder.getEdges()) {
+            if (!containsEdge(heavy.edges, edge.getSource(), edge.getTarget())) {
+                assertTrue(edge.getWeight() <= lightest);
+            }
+        }
+        SubgraphExtractor.Subgraph capped = SubgraphExtractor.topEdges(graph, 100, 10);
+        assertTrue(capped.nodes.size() <= 10);
+        assertTrue(capped.truncated);
+        assertInduced(capped);
+    }
+
+    private int[] undirectedHops(int source) {
+        int[] hops = new int[graph.size()];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        hops[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            List<Integer> neighbors = new ArrayList<>();
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) neighbors.add(graph.targets[e]);
+            for (int e = graph.inOffsets[u]; e < graph.inOffsets[u + 1]; e++) neighbors.add(graph.inSources[e]);
+            for (int v : neighbors) {
+                if (hops[v] == Integer.MAX_VALUE) {
+                    hops[v] = hops[u] + 1;
+                    queue.add(v);
+                }
+            }
+        }
+        return hops;
+    }
+
+    private void assertInduced(SubgraphExtractor.Subgraph subgraph) {
+        Set<String> seen = new HashSet<>();
+        for (Edge edge : subgraph.edges) {
+            assertTrue(subgraph.nodes.contains(edge.getSource()));
+            assertTrue(subgraph.nodes.contains(edge.getTarget()));
+            assertTrue(seen.add(edge.getSource() + "->" + edge.getTarget()));
+        }
+    }
+
+    private boolean containsEdge(List<Edge> edges, Node source, Node target) {
+        for (Edge edge : edges) {
+            if (edge.getSource().equals(source) && edge.getTarget().equals(target)) return true;
+        }
+        return false;
+    }
+}
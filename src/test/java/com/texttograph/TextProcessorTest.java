@@ -0,0 +1,54 @@
+package com.texttograph;
+import com.texttograph.model.Edge;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextProcessorTest {
+
+    // 测试用例1：标点、换行、数字都作为分隔符，结果统一小写
+    @Test
+    public void testTokenize() {
+        List<String> words = TextProcessor.processText("Hello, World!\r\nit's  2024\tthe END.");
+        assertEquals(Arrays.asList("hello", "world", "it", "s", "the", "end"), words);
+    }
+
+    // 测试用例2：流式分词与一次性分词结果一致
+    @Test
+    public void testStreamingMatchesProcessText() throws IOException {
+        Path path = Paths.get("src/test/resources/text.txt");
+        List<String> streamed = new ArrayList<>();
+        TextProcessor.processText(path, streamed::add);
+        assertEquals(TextProcessor.processText(new String(Files.readAllBytes(path))), streamed);
+    }
+
+    // 测试用例3：流式构建的图与按单词列表构建的图相同
+    @Test
+    public void testStreamingBuildGraph() throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get("src/test/resources/text.txt")));
+        GraphBuilder expected = new GraphBuilder();
+        expected.buildGraph(TextProcessor.processText(text));
+        GraphBuilder actual = new GraphBuilder();
+        actual.buildGraph(new StringReader(text));
+
+        assertEquals(expected.getNodes(), actual.getNodes());
+        assertEquals(format(expected.getEdges()), format(actual.getEdges()));
+    }
+
+    private List<String> format(List<Edge> edges) {
+        List<String> result = new ArrayList<>();
+        for (Edge edge : edges) {
+            result.add(edge.getSource() + "->" + edge.getTarget() + ":" + edge.getWeight());
+        }
+        return result;
+    }
+}
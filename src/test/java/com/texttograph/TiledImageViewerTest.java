@@ -0,0 +1,100 @@
+package com.texttograph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TiledImageViewerTest {
+    private static final int WIDTH = 3000;
+    private static final int HEIGHT = 2000;
+
+    @TempDir
+    Path dir;
+    private Path png;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.setRGB(x, y, pixel(x, y));
+            }
+        }
+        png = dir.resolve("large.png");
+        ImageIO.write(image, "png", png.toFile());
+    }
+
+    private static int pixel(int x, int y) {
+        return ((x * 7) & 0xFF) << 16 | ((y * 13) & 0xFF) << 8 | ((x + y) & 0xFF);
+    }
+
+    // 测试用例1：各级别的块与原图对应位置（按2^L子采样）的像素一致，边缘的块按剩余大小截断
+    @Test
+    public void testTilesMatchSubsampledImage() throws IOException {
+        try (TiledImageViewer viewer = new TiledImageViewer()) {
+            viewer.open(png);
+            assertEquals(4, viewer.levels());
+
+            BufferedImage tile = viewer.tile(0, 3, 2);
+            assertEquals(TiledImageViewer.TILE_SIZE, tile.getWidth());
+            for (int y = 0; y < tile.getHeight(); y += 17) {
+                for (int x = 0; x < tile.getWidth(); x += 17) {
+                    assertEquals(pixel(768 + x, 512 + y), tile.getRGB(x, y) & 0xFFFFFF);
+                }
+            }
+            BufferedImage edge = viewer.tile(0, 11, 7);
+            assertEquals(WIDTH - 11 * 256, edge.getWidth());
+            assertEquals(HEIGHT - 7 * 256, edge.getHeight());
+
+            BufferedImage coarse = viewer.tile(2, 1, 1);
+            for (int y = 0; y < coarse.getHeight(); y += 13) {
+                for (int x = 0; x < coarse.getWidth(); x += 13) {
+                    assertEquals(pixel(1024 + 4 * x, 1024 + 4 * y), coarse.getRGB(x, y) & 0xFFFFFF);
+                }
+            }
+            BufferedImage top = viewer.tile(4, 0, 0);
+            assertEquals((WIDTH + 15) / 16, top.getWidth());
+            assertEquals((HEIGHT + 15) / 16, top.getHeight());
+        }
+    }
+
+    // 测试用例2：绘制时在后台只解码可见的块，缓存不超过容量
+    @Test
+    public void testPaintDecodesVisibleTilesWithinBudget() throws Exception {
+        long budget = 6L * 4 * 256 * 256;
+        try (TiledImageViewer viewer = new TiledImageViewer(budget)) {
+            viewer.setSize(600, 400);
+            viewer.open(png);
+            BufferedImage screen = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+            paint(viewer, screen);
+            // 适合窗口时缩放为0.2，使用第2级，整张图只有3×2块
+            assertEquals(0.2, viewer.getScale(), 1e-9);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (viewer.cachedBytes() < 4L * 750 * 500 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(4L * 750 * 500, viewer.cachedBytes());
+            paint(viewer, screen);
+            assertNotEquals(Color.LIGHT_GRAY.getRGB(), screen.getRGB(300, 200));
+
+            for (int tx = 0; tx < 10; tx++) {
+                viewer.tile(0, tx, 3);
+                assertTrue(viewer.cachedBytes() <= budget);
+            }
+        }
+    }
+
+    private static void paint(TiledImageViewer viewer, BufferedImage screen) {
+        Graphics2D g = screen.createGraphics();
+        viewer.paint(g);
+        g.dispose();
+    }
+}